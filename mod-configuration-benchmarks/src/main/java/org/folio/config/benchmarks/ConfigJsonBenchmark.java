@@ -0,0 +1,90 @@
+package org.folio.config.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.folio.dbschema.ObjectMapperTool;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.Configs;
+import org.folio.rest.persist.PostgresClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON serialization and deserialization of a single entry and of a collection of 100 entries,
+ * as done by each GET, POST and PUT.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigJsonBenchmark {
+
+  private Config config;
+  private Configs configs;
+  private String configJson;
+  private String configsJson;
+
+  @Setup
+  public void setup() throws Exception {
+    config = config(0);
+    List<Config> list = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      list.add(config(i));
+    }
+    configs = new Configs().withConfigs(list).withTotalRecords(list.size());
+    configJson = ObjectMapperTool.getMapper().writeValueAsString(config);
+    configsJson = ObjectMapperTool.getMapper().writeValueAsString(configs);
+  }
+
+  static Config config(int i) {
+    return new Config()
+        .withId(UUID.randomUUID().toString())
+        .withModule("CIRCULATION")
+        .withConfigName("validation_rules")
+        .withCode("PATRON_RULE_" + i)
+        .withDescription("for patrons")
+        .withDefault(true)
+        .withEnabled(true)
+        .withValue("{\"loanPeriod\":14,\"renewals\":3,\"notice\":\"Please return the item\"}");
+  }
+
+  @Benchmark
+  public String serializeConfig() throws Exception {
+    return ObjectMapperTool.getMapper().writeValueAsString(config);
+  }
+
+  @Benchmark
+  public Config deserializeConfig() throws Exception {
+    return ObjectMapperTool.readValue(configJson, Config.class);
+  }
+
+  /**
+   * The conversion used before writing an entry to the database.
+   */
+  @Benchmark
+  public String pojo2JsonObject() throws Exception {
+    return PostgresClient.pojo2JsonObject(config).encode();
+  }
+
+  @Benchmark
+  public String serializeConfigs() throws Exception {
+    return ObjectMapperTool.getMapper().writeValueAsString(configs);
+  }
+
+  @Benchmark
+  public Configs deserializeConfigs() throws Exception {
+    return ObjectMapperTool.readValue(configsJson, Configs.class);
+  }
+}
@@ -0,0 +1,58 @@
+package org.folio.config.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.folio.config.PointLookup;
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.cql2pgjson.model.SqlSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CQL to SQL translation of typical GET /configurations/entries queries.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CqlBenchmark {
+
+  @Param({
+    "module==CIRCULATION",
+    "module==CIRCULATION and configName==loans",
+    "module==CIRCULATION and configName==validation_rules and code==PATRON_RULE",
+    "module==ORG and configName==localeSettings and (userId==\"\" or enabled==true) sortBy code",
+    "cql.allRecords=1 sortBy module configName code",
+  })
+  public String query;
+
+  private CQL2PgJSON cql2PgJson;
+
+  @Setup
+  public void setup() throws Exception {
+    cql2PgJson = new CQL2PgJSON("config_data.jsonb");
+  }
+
+  @Benchmark
+  public SqlSelect toSql() throws Exception {
+    return cql2PgJson.toSql(query);
+  }
+
+  /**
+   * The check of the point lookup fast path that runs before the translation.
+   */
+  @Benchmark
+  public PointLookup pointLookupParse() {
+    return PointLookup.parse(query);
+  }
+}
@@ -0,0 +1,81 @@
+package org.folio.config.benchmarks;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import org.folio.config.ConfigDefaults;
+import org.folio.config.ConfigErrors;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.Errors;
+import org.folio.rest.tools.utils.MetadataUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The work done on an entry before POST and PUT write it: validation of the request body like @Validate,
+ * defaults, parsing value into valueJson, metadata and the error of the unique (module, configName, code)
+ * violation.
+ *
+ * <p>The benchmarks change the entry, a new one is built before each invocation outside of the measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WritePathBenchmark {
+
+  private final Map<String, String> okapiHeaders = Map.of(
+      "x-okapi-tenant", "diku",
+      "x-okapi-user-id", "7261ecaa-d4ca-4d2e-a2b4-d9bc3e8b8cbb");
+  private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+  private Config config;
+
+  @Setup(Level.Invocation)
+  public void setup() {
+    config = ConfigJsonBenchmark.config(0);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<Config>> validate() {
+    return validator.validate(config);
+  }
+
+  @Benchmark
+  public Config defaultToEnabled() {
+    config.setEnabled(null);
+    ConfigDefaults.defaultToEnabled(config);
+    return config;
+  }
+
+  @Benchmark
+  public Config syncValueJson() {
+    ConfigDefaults.syncValueJson(config);
+    return config;
+  }
+
+  @Benchmark
+  public Config populateMetadata() throws Exception {
+    ConfigDefaults.defaultToEnabled(config);
+    MetadataUtil.populateMetadata(config, okapiHeaders);
+    return config;
+  }
+
+  @Benchmark
+  public Errors uniqueModuleConfigAndCodeError() {
+    return ConfigErrors.uniqueModuleConfigAndCodeError(config);
+  }
+}
@@ -66,7 +66,7 @@ public class TestClient {
   }
 
   public void getConfigs(TestContext context) {
-    cc.getConfigurationsEntries("module==CIRCULATION", 0, 10, new String[]{"enabled:5" , "code"} ,"en",
+    cc.getConfigurationsEntries("module==CIRCULATION", 0, 10, new String[]{"enabled:5" , "code"}, null, null, null, "en",
       context.asyncAssertSuccess(response -> {
         if (response.statusCode() == 500) { // TODO: update this to be more specific (also in stable release)
           context.fail("status " + response.statusCode());
@@ -0,0 +1,138 @@
+package org.folio.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-tenant admission control so that a single tenant cannot use up the small database connection pool.
+ *
+ * <p>A request is rejected if the tenant already has CONFIG_TENANT_MAX_CONCURRENT requests in progress,
+ * or if the token bucket of the tenant is empty: it is refilled with CONFIG_TENANT_RATE tokens per second
+ * up to CONFIG_TENANT_BURST tokens, each request takes one token. A limit of 0 disables it.
+ *
+ * <p>The limits apply per module instance.
+ */
+public class AdmissionControl {
+
+  /** Maximum number of requests of a tenant in progress, 0 for unlimited. */
+  public static final String MAX_CONCURRENT = "CONFIG_TENANT_MAX_CONCURRENT";
+  /** Requests per second of a tenant, 0 for unlimited. */
+  public static final String RATE = "CONFIG_TENANT_RATE";
+  /** Size of the token bucket, default is the rate. */
+  public static final String BURST = "CONFIG_TENANT_BURST";
+
+  private static volatile AdmissionControl instance = fromEnv();
+
+  private final int maxConcurrent;
+  private final int rate;
+  private final int burst;
+  private final LongSupplier clock;
+  private final Map<String, TenantState> tenants = new HashMap<>();
+
+  AdmissionControl(int maxConcurrent, int rate, int burst, LongSupplier clock) {
+    this.maxConcurrent = maxConcurrent;
+    this.rate = rate;
+    this.burst = Math.max(burst, 1);
+    this.clock = clock;
+  }
+
+  public static AdmissionControl getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replace the instance by a new one with the current limits of the environment, for tests.
+   */
+  public static void reload() {
+    instance = fromEnv();
+  }
+
+  private static AdmissionControl fromEnv() {
+    return new AdmissionControl(Env.getInt(MAX_CONCURRENT, 0),
+        Env.getInt(RATE, 0), Env.getInt(BURST, Env.getInt(RATE, 0)), System::currentTimeMillis);
+  }
+
+  public boolean isEnabled() {
+    return maxConcurrent > 0 || rate > 0;
+  }
+
+  /**
+   * Admit a request of the tenant, the caller must call {@link #release(String)} when it has completed.
+   *
+   * @return null if admitted, otherwise why the request was rejected
+   */
+  public synchronized Rejection tryAcquire(String tenantId) {
+    if (! isEnabled()) {
+      return null;
+    }
+    TenantState tenant = tenants.computeIfAbsent(tenantId, x -> new TenantState(burst, clock.getAsLong()));
+    if (maxConcurrent > 0 && tenant.inProgress >= maxConcurrent) {
+      return new Rejection("concurrency", 1);
+    }
+    if (rate > 0) {
+      long now = clock.getAsLong();
+      tenant.tokens = Math.min(burst, tenant.tokens + (now - tenant.refilled) * rate / 1000.0);
+      tenant.refilled = now;
+      if (tenant.tokens < 1) {
+        return new Rejection("rate", Math.max(1, (long) Math.ceil((1 - tenant.tokens) / rate)));
+      }
+      tenant.tokens--;
+    }
+    tenant.inProgress++;
+    return null;
+  }
+
+  /**
+   * A request admitted by {@link #tryAcquire(String)} has completed.
+   */
+  public synchronized void release(String tenantId) {
+    TenantState tenant = tenants.get(tenantId);
+    if (tenant != null && tenant.inProgress > 0) {
+      tenant.inProgress--;
+    }
+  }
+
+  /**
+   * @return number of requests of the tenant in progress
+   */
+  public synchronized int inProgress(String tenantId) {
+    TenantState tenant = tenants.get(tenantId);
+    return tenant == null ? 0 : tenant.inProgress;
+  }
+
+  public static final class Rejection {
+    private final String reason;
+    private final long retryAfterSeconds;
+
+    Rejection(String reason, long retryAfterSeconds) {
+      this.reason = reason;
+      this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return concurrency or rate
+     */
+    public String getReason() {
+      return reason;
+    }
+
+    /**
+     * @return value for the Retry-After header
+     */
+    public long getRetryAfterSeconds() {
+      return retryAfterSeconds;
+    }
+  }
+
+  private static final class TenantState {
+    private int inProgress;
+    private double tokens;
+    private long refilled;
+
+    private TenantState(double tokens, long refilled) {
+      this.tokens = tokens;
+      this.refilled = refilled;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.folio.config;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import org.z3950.zing.cql.CQLAndNode;
+import org.z3950.zing.cql.CQLNode;
+import org.z3950.zing.cql.CQLParser;
+import org.z3950.zing.cql.CQLSortNode;
+import org.z3950.zing.cql.CQLTermNode;
+
+/**
+ * The created_date range of an audit CQL query for partition pruning.
+ *
+ * <p>audit_config_data is partitioned by the created_date column, CQL queries filter the
+ * createdDate string of the jsonb. The bounds of createdDate relations that are ANDed at the top
+ * level of the query are converted into a created_date condition that selects a superset of
+ * the matching rows: the jsonb string may have any time zone offset, therefore the bounds are
+ * widened by one day.
+ */
+public final class AuditDateRange {
+
+  private static final String FIELD = "createdDate";
+  private static final long MARGIN_DAYS = 1;
+
+  private Instant from;
+  private Instant to;
+
+  private AuditDateRange() {
+  }
+
+  /**
+   * @return the SQL condition on the created_date column, or null if the query doesn't restrict createdDate
+   */
+  public static String sqlCondition(String query) {
+    if (query == null || query.isBlank()) {
+      return null;
+    }
+    AuditDateRange range = new AuditDateRange();
+    try {
+      range.add(new CQLParser().parse(query));
+    } catch (Exception e) {
+      // invalid CQL is reported by the CQL to SQL translation
+      return null;
+    }
+    return range.toSql();
+  }
+
+  private void add(CQLNode node) {
+    if (node instanceof CQLSortNode sortNode) {
+      add(sortNode.getSubtree());
+    } else if (node instanceof CQLAndNode andNode) {
+      add(andNode.getLeftOperand());
+      add(andNode.getRightOperand());
+    } else if (node instanceof CQLTermNode termNode && FIELD.equalsIgnoreCase(termNode.getIndex())) {
+      Instant instant = parse(termNode.getTerm());
+      if (instant == null) {
+        return;
+      }
+      switch (termNode.getRelation().getBase()) {
+        case ">", ">=" -> from = from == null || instant.isAfter(from) ? instant : from;
+        case "<", "<=" -> to = to == null || instant.isBefore(to) ? instant : to;
+        default -> { }
+      }
+    }
+  }
+
+  static Instant parse(String term) {
+    try {
+      return OffsetDateTime.parse(term).toInstant();
+    } catch (DateTimeParseException e) {
+      // try date only
+    }
+    try {
+      return LocalDate.parse(term).atStartOfDay(ZoneOffset.UTC).toInstant();
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  private String toSql() {
+    if (from == null && to == null) {
+      return null;
+    }
+    StringBuilder sql = new StringBuilder();
+    if (from != null) {
+      sql.append("created_date >= '").append(from.minus(MARGIN_DAYS, ChronoUnit.DAYS)).append("'::timestamptz");
+    }
+    if (to != null) {
+      if (from != null) {
+        sql.append(" AND ");
+      }
+      sql.append("created_date <= '").append(to.plus(MARGIN_DAYS, ChronoUnit.DAYS)).append("'::timestamptz");
+    }
+    return sql.toString();
+  }
+}
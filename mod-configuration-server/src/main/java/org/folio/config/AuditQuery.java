@@ -0,0 +1,72 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import java.util.ArrayList;
+import java.util.List;
+import org.folio.dbschema.ObjectMapperTool;
+import org.folio.rest.jaxrs.model.Audit;
+import org.folio.rest.jaxrs.model.Audits;
+
+/**
+ * CQL query of the audit table restricted to the partitions of a createdDate range.
+ *
+ * <p>The CQL condition on the jsonb createdDate is combined with the equivalent condition on the
+ * created_date partition key, see {@link AuditDateRange}, so that PostgreSQL scans only the
+ * partitions of the requested months.
+ */
+public class AuditQuery {
+
+  private final String tenantId;
+  private final String table;
+  private final String query;
+  private final String condition;
+  private String totalRecords;
+
+  /**
+   * @param sqlCondition  condition on the partition key, see {@link AuditDateRange#sqlCondition(String)},
+   *     may be null
+   */
+  public AuditQuery(String tenantId, String table, String query, String sqlCondition) {
+    this.tenantId = tenantId;
+    this.table = table;
+    this.query = query;
+    this.condition = sqlCondition;
+  }
+
+  /**
+   * @param totalRecords  exact, estimated or none, see {@link CqlSelect#count}; null for RMB's count
+   */
+  public AuditQuery withTotalRecords(String totalRecords) {
+    this.totalRecords = totalRecords;
+    return this;
+  }
+
+  public Future<Audits> get(Queryable queryable, int offset, int limit) {
+    CqlSelect select;
+    try {
+      select = CqlSelect.of(tenantId, table, query, condition);
+    } catch (IllegalArgumentException e) {
+      return Future.failedFuture(e);
+    }
+    Future<Integer> count = select.count(totalRecords, queryable::execute);
+    Future<List<Audit>> audits = queryable.execute(select.page("jsonb"), CqlSelect.pageParameters(offset, limit))
+        .map(rowSet -> {
+          List<Audit> list = new ArrayList<>();
+          for (Row row : rowSet) {
+            list.add(toAudit(row));
+          }
+          return list;
+        });
+    return Future.all(count, audits)
+        .map(x -> new Audits().withAudits(audits.result()).withTotalRecords(count.result()));
+  }
+
+  private static Audit toAudit(Row row) {
+    try {
+      return ObjectMapperTool.readValue(row.getJsonObject("jsonb").encode(), Audit.class);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Scheduled maintenance of the partitioned audit table of all tenants.
+ *
+ * <p>Calls audit_config_data_maintain, see migration/audit_config_data_partitioning.sql, that
+ * creates the monthly partitions of the coming months and deletes the audit records older than
+ * the retention window by dropping whole partitions where possible.
+ */
+public final class AuditRetention {
+
+  /** Days to keep audit records, 0 keeps them forever. */
+  public static final String RETENTION_DAYS = "CONFIG_AUDIT_RETENTION_DAYS";
+  /** Milliseconds between maintenance runs. */
+  public static final String INTERVAL_MS = "CONFIG_AUDIT_MAINTENANCE_INTERVAL_MS";
+
+  private static final Logger log = LogManager.getLogger(AuditRetention.class);
+  private static final String FUNCTION = "audit_config_data_maintain";
+  /** Delay of the first run after module start. */
+  private static final long FIRST_RUN_MS = 60000;
+
+  private AuditRetention() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+
+  /**
+   * Run the maintenance periodically.
+   */
+  public static void start(Vertx vertx) {
+    int retentionDays = Env.getInt(RETENTION_DAYS, 0);
+    long interval = Env.getLong(INTERVAL_MS, 3600000);
+    vertx.setTimer(Math.min(FIRST_RUN_MS, interval), x -> {
+      run(vertx, retentionDays);
+      vertx.setPeriodic(interval, y -> run(vertx, retentionDays));
+    });
+  }
+
+  /**
+   * Maintain the audit table of each tenant, one after the other.
+   */
+  public static Future<Void> run(Vertx vertx, int retentionDays) {
+    PostgresClient postgresClient = PostgresClient.getInstance(vertx);
+    // the schemas of the tenants where the module is enabled and the migration has run
+    return postgresClient.execute("SELECT n.nspname FROM pg_proc p JOIN pg_namespace n ON n.oid = p.pronamespace"
+        + " WHERE p.proname = '" + FUNCTION + "'")
+        .compose(rowSet -> {
+          List<String> schemas = new ArrayList<>();
+          for (Row row : rowSet) {
+            schemas.add(row.getString(0));
+          }
+          Future<Void> future = Future.succeededFuture();
+          for (String schema : schemas) {
+            future = future.compose(x -> maintain(postgresClient, schema, retentionDays));
+          }
+          return future;
+        })
+        .onFailure(e -> log.error("Audit maintenance failed: {}", e.getMessage(), e));
+  }
+
+  private static Future<Void> maintain(PostgresClient postgresClient, String schema, int retentionDays) {
+    return postgresClient.execute("SELECT \"" + schema + "\"." + FUNCTION + "($1)", Tuple.of(retentionDays))
+        .<Void>mapEmpty()
+        .recover(e -> {
+          // continue with the other tenants
+          log.error("Audit maintenance of {} failed: {}", schema, e.getMessage(), e);
+          return Future.succeededFuture();
+        });
+  }
+}
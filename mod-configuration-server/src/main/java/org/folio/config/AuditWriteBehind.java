@@ -0,0 +1,102 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Background drain of the audit queue of all tenants.
+ *
+ * <p>Calls audit_config_data_drain, see migration/audit_config_data_write_behind.sql. If
+ * CONFIG_AUDIT_WRITE_BEHIND is true the audit records of config_data writes go to the queue table
+ * and are moved to audit_config_data in batches of CONFIG_AUDIT_DRAIN_BATCH_SIZE records every
+ * CONFIG_AUDIT_DRAIN_INTERVAL_MS milliseconds. If false the audit records are written directly, and
+ * the queue is drained once an hour in case it still has records from the time it was enabled.
+ * All module instances must use the same setting, each drain run sets it for the tenants.
+ */
+public final class AuditWriteBehind {
+
+  /** true diverts the audit records into the queue. */
+  public static final String WRITE_BEHIND = "CONFIG_AUDIT_WRITE_BEHIND";
+  /** Milliseconds between drain runs. */
+  public static final String INTERVAL_MS = "CONFIG_AUDIT_DRAIN_INTERVAL_MS";
+  /** Maximum number of audit records moved in one transaction. */
+  public static final String BATCH_SIZE = "CONFIG_AUDIT_DRAIN_BATCH_SIZE";
+
+  private static final Logger log = LogManager.getLogger(AuditWriteBehind.class);
+  private static final String FUNCTION = "audit_config_data_drain";
+  /** Milliseconds between drain runs if write-behind is disabled. */
+  private static final long DISABLED_INTERVAL_MS = 3600000;
+
+  private AuditWriteBehind() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+
+  /**
+   * Run the drain periodically, the first run sets the write-behind mode of the tenants.
+   */
+  public static void start(Vertx vertx) {
+    boolean writeBehind = Env.getBoolean(WRITE_BEHIND, false);
+    long interval = writeBehind ? Env.getLong(INTERVAL_MS, 1000) : DISABLED_INTERVAL_MS;
+    int batchSize = Env.getInt(BATCH_SIZE, 1000);
+    schedule(vertx, writeBehind, batchSize, interval);
+  }
+
+  private static void schedule(Vertx vertx, boolean writeBehind, int batchSize, long interval) {
+    // wait for the end of a run before starting the next
+    run(vertx, writeBehind, batchSize).onComplete(x ->
+        vertx.setTimer(interval, y -> schedule(vertx, writeBehind, batchSize, interval)));
+  }
+
+  /**
+   * Set the write-behind mode and drain the queue of each tenant, one after the other.
+   *
+   * @return the number of audit records moved
+   */
+  public static Future<Integer> run(Vertx vertx, boolean writeBehind, int batchSize) {
+    PostgresClient postgresClient = PostgresClient.getInstance(vertx);
+    // the schemas of the tenants where the module is enabled and the migration has run
+    return postgresClient.execute("SELECT n.nspname FROM pg_proc p JOIN pg_namespace n ON n.oid = p.pronamespace"
+        + " WHERE p.proname = '" + FUNCTION + "'")
+        .compose(rowSet -> {
+          List<String> schemas = new ArrayList<>();
+          for (Row row : rowSet) {
+            schemas.add(row.getString(0));
+          }
+          Future<Integer> future = Future.succeededFuture(0);
+          for (String schema : schemas) {
+            future = future.compose(n -> drain(postgresClient, schema, writeBehind, batchSize, n));
+          }
+          return future;
+        })
+        .onFailure(e -> log.error("Audit drain failed: {}", e.getMessage(), e));
+  }
+
+  /**
+   * Move batches until the queue is empty.
+   */
+  private static Future<Integer> drain(PostgresClient postgresClient, String schema, boolean writeBehind,
+      int batchSize, int drained) {
+
+    return postgresClient.execute("SELECT \"" + schema + "\"." + FUNCTION + "($1, $2)",
+        Tuple.of(writeBehind, batchSize))
+        .compose(rowSet -> {
+          int n = rowSet.iterator().next().getInteger(0);
+          if (n < batchSize) {
+            return Future.succeededFuture(drained + n);
+          }
+          return drain(postgresClient, schema, writeBehind, batchSize, drained + n);
+        })
+        .recover(e -> {
+          // continue with the other tenants
+          log.error("Audit drain of {} failed: {}", schema, e.getMessage(), e);
+          return Future.succeededFuture(drained);
+        });
+  }
+}
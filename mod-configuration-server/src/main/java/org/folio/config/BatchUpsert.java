@@ -0,0 +1,203 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.ConfigBatchResult;
+import org.folio.rest.jaxrs.model.ConfigBatchResults;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PgExceptionUtil;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Upsert many configuration entries in a single transaction.
+ *
+ * <p>The entries are written with multi-row INSERT ... ON CONFLICT (id) DO UPDATE statements.
+ * If such a statement fails because an entry violates a unique index the transaction is rolled back
+ * to a savepoint and the entries of that statement are written one by one, each in its own savepoint,
+ * so that only the violating entries are skipped and reported.
+ *
+ * <p>An entry with a _version different from the stored one (optimistic locking) is not updated by the
+ * DO UPDATE ... WHERE clause and reported with status 409.
+ */
+public class BatchUpsert {
+
+  /** Maximum number of entries of a batch. */
+  public static final String BATCH_MAX_SIZE = "CONFIG_BATCH_MAX_SIZE";
+
+  private static final Logger log = LogManager.getLogger(BatchUpsert.class);
+  /** Entries per INSERT statement, each entry takes 2 of the 65535 parameters a statement can have. */
+  private static final int ROWS_PER_STATEMENT = 1000;
+
+  private final String table;
+  private final List<Config> configs;
+  private final List<ConfigBatchResult> results = new ArrayList<>();
+
+  public BatchUpsert(String tenantId, String table, List<Config> configs) {
+    this.table = PostgresClient.convertToPsqlStandard(tenantId) + "." + table;
+    this.configs = configs;
+  }
+
+  public static int maxSize() {
+    return Env.getInt(BATCH_MAX_SIZE, 1000);
+  }
+
+  /**
+   * Write all entries.
+   *
+   * @return the result of each entry in request order; a failed future if the transaction failed
+   */
+  public Future<ConfigBatchResults> run(PostgresClient postgresClient) {
+    boolean hasDuplicateIds = false;
+    Set<String> ids = new HashSet<>();
+    for (int i = 0; i < configs.size(); i++) {
+      Config config = configs.get(i);
+      if (config.getId() == null) {
+        config.setId(UUID.randomUUID().toString());
+      }
+      if (! ids.add(config.getId().toLowerCase())) {
+        hasDuplicateIds = true;
+      }
+      results.add(new ConfigBatchResult().withIndex(i).withId(config.getId()));
+    }
+    // the same id twice in one statement fails with "cannot affect row a second time"
+    final int rowsPerStatement = hasDuplicateIds ? 1 : ROWS_PER_STATEMENT;
+    return postgresClient.withTrans(conn -> {
+      Future<Void> future = Future.succeededFuture();
+      for (int start = 0; start < configs.size(); start += rowsPerStatement) {
+        int from = start;
+        int to = Math.min(start + rowsPerStatement, configs.size());
+        future = future.compose(x -> to - from == 1 ? upsertSingle(conn, from) : upsertChunk(conn, from, to));
+      }
+      return future;
+    }).map(x -> new ConfigBatchResults().withResults(results).withTotalRecords(results.size()));
+  }
+
+  private Future<Void> upsertChunk(Conn conn, int from, int to) {
+    return conn.execute("SAVEPOINT batch")
+        .compose(x -> upsert(conn, from, to))
+        .compose(x -> conn.execute("RELEASE SAVEPOINT batch"))
+        .<Void>mapEmpty()
+        .recover(e -> {
+          if (! PgExceptionUtil.isUniqueViolation(e)) {
+            return Future.failedFuture(e);
+          }
+          log.debug("Multi-row upsert failed, retrying row by row: {}", e.getMessage());
+          Future<Void> future = conn.execute("ROLLBACK TO SAVEPOINT batch").mapEmpty();
+          for (int i = from; i < to; i++) {
+            int index = i;
+            future = future.compose(x -> upsertSingle(conn, index));
+          }
+          return future.compose(x -> conn.execute("RELEASE SAVEPOINT batch")).mapEmpty();
+        });
+  }
+
+  private Future<Void> upsertSingle(Conn conn, int index) {
+    return conn.execute("SAVEPOINT single")
+        .compose(x -> upsert(conn, index, index + 1))
+        .compose(x -> conn.execute("RELEASE SAVEPOINT single"))
+        .<Void>mapEmpty()
+        .recover(e -> {
+          ConfigBatchResult result = results.get(index);
+          if (ConfigErrors.isNotUniqueModuleConfigAndCode(e)) {
+            result.withStatus(422).withErrors(ConfigErrors.uniqueModuleConfigAndCodeError(configs.get(index)));
+          } else if (PgExceptionUtil.badRequestMessage(e) != null) {
+            result.withStatus(400).withErrors(ConfigErrors.error(PgExceptionUtil.badRequestMessage(e)));
+          } else {
+            return Future.failedFuture(e);
+          }
+          return conn.execute("ROLLBACK TO SAVEPOINT single").mapEmpty();
+        });
+  }
+
+  /**
+   * The multi-row INSERTs of configs from (inclusive) to (exclusive): one for the entries with _version,
+   * one for the entries without. An entry without _version overwrites the stored entry whatever its
+   * _version is.
+   */
+  private Future<Void> upsert(Conn conn, int from, int to) {
+    List<Integer> versioned = new ArrayList<>();
+    List<Integer> unversioned = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      (configs.get(i).getVersion() == null ? unversioned : versioned).add(i);
+    }
+    return upsert(conn, versioned, true)
+        .compose(x -> upsert(conn, unversioned, false));
+  }
+
+  /**
+   * The insert trigger sets _version 1 in EXCLUDED whatever the request has, the _version of the requests
+   * is passed as an extra parameter that maps the id to the _version. The update trigger increments the
+   * stored _version.
+   */
+  private Future<Void> upsert(Conn conn, List<Integer> indexes, boolean versioned) {
+    if (indexes.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" AS stored (id, jsonb) VALUES ");
+    Tuple tuple = Tuple.tuple();
+    JsonObject versions = new JsonObject();
+    for (int n = 0; n < indexes.size(); n++) {
+      Config config = configs.get(indexes.get(n));
+      // a rolled back multi-row statement may have set it
+      results.get(indexes.get(n)).setStatus(null);
+      if (n > 0) {
+        sql.append(", ");
+      }
+      sql.append("($").append(2 * n + 1).append(", $").append(2 * n + 2).append(")");
+      UUID id = UUID.fromString(config.getId());
+      tuple.addUUID(id);
+      tuple.addValue(toJson(config));
+      versions.put(id.toString(), config.getVersion());
+    }
+    sql.append(" ON CONFLICT (id) DO UPDATE SET jsonb = EXCLUDED.jsonb - '_version'");
+    if (versioned) {
+      sql.append(" WHERE stored.jsonb->'_version' = ($").append(2 * indexes.size() + 1)
+          .append("::jsonb->(EXCLUDED.id::text))");
+      tuple.addValue(versions);
+    }
+    sql.append(" RETURNING id, (xmax = 0) AS inserted");
+    return conn.execute(sql.toString(), tuple)
+        .map(rowSet -> {
+          for (Row row : rowSet) {
+            setStatus(indexes, row.getUUID("id").toString(), row.getBoolean("inserted") ? 201 : 200);
+          }
+          for (int i : indexes) {
+            ConfigBatchResult result = results.get(i);
+            if (result.getStatus() == null) {
+              // not returned: the WHERE clause has skipped the update
+              result.withStatus(409).withErrors(ConfigErrors.error("Cannot update record " + result.getId()
+                  + " because it has been changed (optimistic locking): _version of request is "
+                  + configs.get(i).getVersion()));
+            }
+          }
+          return null;
+        });
+  }
+
+  private void setStatus(List<Integer> indexes, String id, int status) {
+    for (int i : indexes) {
+      ConfigBatchResult result = results.get(i);
+      if (id.equalsIgnoreCase(result.getId())) {
+        result.setStatus(status);
+      }
+    }
+  }
+
+  private static JsonObject toJson(Config config) {
+    try {
+      return PostgresClient.pojo2JsonObject(config);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
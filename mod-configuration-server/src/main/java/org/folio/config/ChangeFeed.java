@@ -0,0 +1,112 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.folio.dbschema.ObjectMapperTool;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.ConfigChange;
+import org.folio.rest.jaxrs.model.ConfigChanges;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Changes of config_data read from the audit table after a cursor token.
+ *
+ * <p>The token is {@code <txid>-<seq>} of the last returned audit row, see
+ * migration/audit_config_data_changes.sql. Only rows of transactions below the xmin of the
+ * current snapshot are returned, these are complete, so that no change can appear
+ * before a token that has already been returned. For the same reason rows of transactions
+ * that still have audit records in the write-behind queue are not returned, see {@link AuditWriteBehind}.
+ */
+public class ChangeFeed {
+
+  /** Value of since to get the latest token. */
+  public static final String NOW = "now";
+
+  private static final Pattern TOKEN = Pattern.compile("(\\d{1,20})-(\\d{1,19})");
+
+  private final String table;
+  private final String complete;
+  private final String auditingFieldName;
+
+  /**
+   * @param auditTable  the audit table name without schema
+   * @param auditingFieldName  the property of the audit jsonb that contains the entry
+   */
+  public ChangeFeed(String tenantId, String auditTable, String auditingFieldName) {
+    this.table = PostgresClient.convertToPsqlStandard(tenantId) + "." + auditTable;
+    this.auditingFieldName = auditingFieldName;
+    this.complete = "txid < LEAST(pg_snapshot_xmin(pg_current_snapshot()), "
+        + "(SELECT txid FROM " + table + "_queue ORDER BY txid LIMIT 1))";
+  }
+
+  public static boolean isValidToken(String since) {
+    return since == null || NOW.equals(since) || TOKEN.matcher(since).matches();
+  }
+
+  /**
+   * @param since  token of the last change already known, null for all changes, {@link #NOW} for the latest token
+   */
+  public Future<ConfigChanges> get(PostgresClient postgresClient, String since, int limit) {
+    if (! isValidToken(since)) {
+      return Future.failedFuture(new IllegalArgumentException("Invalid since token: " + since));
+    }
+    if (NOW.equals(since)) {
+      return postgresClient.execute("SELECT txid::text AS txid, seq FROM " + table
+          + " WHERE " + complete + " ORDER BY txid DESC, seq DESC LIMIT 1")
+          .map(rowSet -> {
+            String token = rowSet.iterator().hasNext() ? token(rowSet.iterator().next()) : "0-0";
+            return new ConfigChanges().withChanges(new ArrayList<>()).withNextToken(token).withTotalRecords(0);
+          });
+    }
+    String txid = "0";
+    long seq = 0;
+    if (since != null) {
+      Matcher matcher = TOKEN.matcher(since);
+      matcher.matches();
+      txid = matcher.group(1);
+      seq = Long.parseLong(matcher.group(2));
+    }
+    String sql = "SELECT txid::text AS txid, seq, jsonb FROM " + table
+        + " WHERE (txid, seq) > ($1::text::xid8, $2) AND " + complete
+        + " ORDER BY txid, seq LIMIT $3";
+    return postgresClient.execute(sql, Tuple.of(txid, seq, limit))
+        .map(rowSet -> {
+          List<ConfigChange> changes = new ArrayList<>();
+          String nextToken = since == null ? "0-0" : since;
+          for (Row row : rowSet) {
+            ConfigChange change = change(row);
+            changes.add(change);
+            nextToken = change.getToken();
+          }
+          return new ConfigChanges().withChanges(changes).withNextToken(nextToken).withTotalRecords(changes.size());
+        });
+  }
+
+  private ConfigChange change(Row row) {
+    JsonObject jsonb = row.getJsonObject("jsonb");
+    JsonObject config = jsonb.getJsonObject(auditingFieldName);
+    ConfigChange change = new ConfigChange()
+        .withToken(token(row))
+        .withOperation(ConfigChange.Operation.fromValue(jsonb.getString("operation")))
+        .withCreatedDate(jsonb.getString("createdDate"));
+    if (config != null) {
+      change.withId(config.getString("id"));
+      try {
+        change.withConfig(ObjectMapperTool.readValue(config.encode(), Config.class));
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    return change;
+  }
+
+  private static String token(Row row) {
+    return row.getString("txid") + "-" + row.getLong("seq");
+  }
+}
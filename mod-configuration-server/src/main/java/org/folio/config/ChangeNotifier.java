@@ -0,0 +1,155 @@
+package org.folio.config;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.pubsub.PgSubscriber;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Server-sent events of config_data changes.
+ *
+ * <p>A single PostgreSQL connection per module instance listens to the notifications of the
+ * config_data_notify trigger, see migration/config_data_notify.sql, and writes each one to the
+ * subscribers of the tenant and module. A subscriber whose write queue is full is disconnected
+ * instead of buffering its events, the client reconnects and catches up using {@link ChangeFeed}.
+ */
+public final class ChangeNotifier {
+
+  public static final String CHANNEL = "mod_configuration_config_data";
+  /** Maximum number of concurrent subscriptions of a module instance. */
+  public static final String SUBSCRIBE_MAX = "CONFIG_SUBSCRIBE_MAX";
+  /** Milliseconds between keep-alive comments of a subscription. */
+  public static final String SUBSCRIBE_HEARTBEAT_MS = "CONFIG_SUBSCRIBE_HEARTBEAT_MS";
+
+  private static final Logger log = LogManager.getLogger(ChangeNotifier.class);
+  private static ChangeNotifier instance;
+
+  private final Vertx vertx;
+  private final int maxSubscribers = Env.getInt(SUBSCRIBE_MAX, 1000);
+  private final long heartbeatMillis = Env.getLong(SUBSCRIBE_HEARTBEAT_MS, 30000);
+  private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final PgSubscriber pgSubscriber;
+  private final Future<Void> listening;
+
+  private ChangeNotifier(Vertx vertx) {
+    this.vertx = vertx;
+    JsonObject config = PostgresClient.getInstance(vertx).getConnectionConfig();
+    // same SSL settings as RMB's connections
+    pgSubscriber = PgSubscriber.subscriber(vertx,
+        ReadRouting.connectOptions(config, config.getString("host"), 0))
+        .reconnectPolicy(retries -> 1000L);
+    pgSubscriber.channel(CHANNEL).handler(this::notify);
+    listening = pgSubscriber.connect()
+        .onFailure(e -> log.error("Cannot listen to {}: {}", CHANNEL, e.getMessage(), e));
+  }
+
+  public static synchronized ChangeNotifier getInstance(Vertx vertx) {
+    if (instance == null || instance.listening.failed()) {
+      if (instance != null) {
+        // don't leak the failed subscriber, its reconnect policy may still be trying
+        instance.pgSubscriber.close();
+      }
+      instance = new ChangeNotifier(vertx);
+    }
+    return instance;
+  }
+
+  /**
+   * Send the changes of the module to response until the client closes the connection.
+   *
+   * @return succeeded when the response has been started, failed if the maximum number of subscribers is reached
+   *   or the notifications cannot be received
+   */
+  public Future<Void> subscribe(String tenantId, String module, HttpServerResponse response) {
+    if (count() >= maxSubscribers) {
+      return Future.failedFuture(new IllegalStateException(
+          "Maximum number of subscriptions reached: " + maxSubscribers));
+    }
+    Context context = vertx.getOrCreateContext();
+    return listening.map(x -> {
+      String schema = PostgresClient.convertToPsqlStandard(tenantId);
+      Subscriber subscriber = new Subscriber(context, module.toLowerCase(Locale.ROOT), response);
+      response.setChunked(true)
+          .setStatusCode(200)
+          .putHeader("Content-Type", "text/event-stream")
+          .putHeader("Cache-Control", "no-cache")
+          .write("retry: 5000\n\n");
+      subscribers.computeIfAbsent(schema, s -> ConcurrentHashMap.newKeySet()).add(subscriber);
+      subscriber.timer = vertx.setPeriodic(heartbeatMillis, id -> write(schema, subscriber, ": keep-alive\n\n"));
+      response.closeHandler(v -> remove(schema, subscriber));
+      return null;
+    });
+  }
+
+  /**
+   * Write data unless the write queue of the subscriber is full; a slow subscriber is disconnected.
+   */
+  private void write(String schema, Subscriber subscriber, String data) {
+    HttpServerResponse response = subscriber.response;
+    if (response.closed()) {
+      remove(schema, subscriber);
+      return;
+    }
+    if (response.writeQueueFull()) {
+      log.warn("Disconnecting slow subscriber of {} module {}", schema, subscriber.module);
+      remove(schema, subscriber);
+      response.reset();
+      return;
+    }
+    response.write(data);
+  }
+
+  private void remove(String schema, Subscriber subscriber) {
+    vertx.cancelTimer(subscriber.timer);
+    subscribers.getOrDefault(schema, Set.of()).remove(subscriber);
+  }
+
+  public int count() {
+    return subscribers.values().stream().mapToInt(Set::size).sum();
+  }
+
+  private void notify(String payload) {
+    JsonObject change;
+    try {
+      change = new JsonObject(payload);
+    } catch (Exception e) {
+      log.warn("Invalid {} payload: {}", CHANNEL, payload, e);
+      return;
+    }
+    String schema = change.getString("schema");
+    Set<Subscriber> tenantSubscribers = subscribers.get(schema);
+    if (tenantSubscribers == null || tenantSubscribers.isEmpty()) {
+      return;
+    }
+    String module = change.getString("module", "").toLowerCase(Locale.ROOT);
+    change.remove("schema");
+    String event = "event: change\ndata: " + change.encode() + "\n\n";
+    for (Subscriber subscriber : tenantSubscribers) {
+      if (subscriber.module.equals(module)) {
+        subscriber.context.runOnContext(v -> write(schema, subscriber, event));
+      }
+    }
+  }
+
+  private static class Subscriber {
+    private final Context context;
+    private final String module;
+    private final HttpServerResponse response;
+    private long timer;
+
+    Subscriber(Context context, String module, HttpServerResponse response) {
+      this.context = context;
+      this.module = module;
+      this.response = response;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+import org.folio.rest.jaxrs.model.ResultInfo;
+
+/**
+ * Stream the result of a CQL query into the HTTP response as it comes off a database cursor.
+ *
+ * <p>The jsonb of each row is fetched as text and copied into the response without decoding,
+ * every fetch of rows is sent as one chunk, optionally gzip compressed, see {@link Compression}.
+ * The cursor is paused while the write queue of the response is full, so memory use doesn't
+ * depend on the number of records. totalRecords and resultInfo are appended after the records,
+ * without a totalRecords parameter counted like PgUtil.streamGet does so that the response is
+ * the same.
+ */
+public class CollectionStream {
+
+  /** Number of rows per cursor fetch. */
+  public static final String STREAM_FETCH_SIZE = "CONFIG_STREAM_FETCH_SIZE";
+
+  private final String tenantId;
+  private final String table;
+  private final String query;
+  private String condition;
+  private Projection projection;
+  private String totalRecords;
+
+  public CollectionStream(String tenantId, String table, String query) {
+    this.tenantId = tenantId;
+    this.table = table;
+    this.query = query;
+  }
+
+  public static int fetchSize() {
+    return Env.getInt(STREAM_FETCH_SIZE, 100);
+  }
+
+  /**
+   * @param sqlCondition  additional SQL condition the records must match, may be null
+   */
+  public CollectionStream withCondition(String sqlCondition) {
+    this.condition = sqlCondition;
+    return this;
+  }
+
+  /**
+   * @param projection  the properties to return, null for all
+   */
+  public CollectionStream withProjection(Projection projection) {
+    this.projection = projection;
+    return this;
+  }
+
+  /**
+   * @param totalRecords  exact, estimated or none, see {@link CqlSelect#count}; null for RMB's count
+   */
+  public CollectionStream withTotalRecords(String totalRecords) {
+    this.totalRecords = totalRecords;
+    return this;
+  }
+
+  /**
+   * Write the collection with the records in the arrayName property and end the response.
+   *
+   * <p>If the returned future fails and {@link Compression.Writer#hasWritten()} is false the caller can
+   * still send an error response, otherwise the caller must close the connection.
+   *
+   * @throws IllegalArgumentException  if the CQL query is invalid, nothing has been written
+   */
+  public Future<Void> write(Queryable queryable, String arrayName, int offset, int limit,
+      HttpServerResponse response, Compression.Writer writer) {
+
+    CqlSelect select = CqlSelect.of(tenantId, table, query, condition);
+    String sql = select.page((projection == null ? "jsonb" : projection.sql()) + "::text AS jsonb");
+    writer.write("{\"" + arrayName + "\":[");
+    return queryable.withTrans(conn -> stream(conn, sql, CqlSelect.pageParameters(offset, limit), ",", response, writer)
+        .compose(x -> select.count(totalRecords, s -> conn.query(s).execute()))
+        .map(count -> {
+          writer.write("]" + (count == null ? "" : ",\"totalRecords\":" + count)
+              + ",\"resultInfo\":" + Json.encode(new ResultInfo().withTotalRecords(count)) + "}");
+          writer.end();
+          return null;
+        }));
+  }
+
+  /**
+   * Write the jsonb column of each row, each fetch of rows is flushed.
+   *
+   * <p>If the client closes the connection or the response fails the cursor is closed and the
+   * returned future fails so that the transaction ends and the database connection is released.
+   *
+   * @param separator  written between two rows
+   * @return the number of rows
+   */
+  static Future<Integer> stream(SqlConnection conn, String sql, Tuple tuple, String separator,
+      HttpServerResponse response, Compression.Writer writer) {
+
+    Promise<Integer> promise = Promise.promise();
+    int fetchSize = fetchSize();
+    conn.prepare(sql)
+    .onFailure(promise::tryFail)
+    .onSuccess(preparedStatement -> {
+      RowStream<Row> rowStream = preparedStatement.createStream(fetchSize, tuple);
+      int [] rows = { 0 };
+      promise.future().onComplete(x -> {
+        response.closeHandler(null);
+        response.exceptionHandler(null);
+        if (x.failed()) {
+          rowStream.close();
+        }
+        preparedStatement.close();
+      });
+      response.closeHandler(v -> promise.tryFail("Client closed the connection"));
+      response.exceptionHandler(promise::tryFail);
+      rowStream.exceptionHandler(promise::tryFail);
+      rowStream.endHandler(x -> promise.tryComplete(rows[0]));
+      rowStream.handler(row -> {
+        if (rows[0] > 0) {
+          writer.write(separator);
+        }
+        writer.write(row.getString("jsonb"));
+        rows[0]++;
+        if (rows[0] % fetchSize == 0 && writer.flush()) {
+          rowStream.pause();
+          response.drainHandler(v -> rowStream.resume());
+        }
+      });
+    });
+    return promise.future();
+  }
+}
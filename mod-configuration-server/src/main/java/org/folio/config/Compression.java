@@ -0,0 +1,172 @@
+package org.folio.config;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip content encoding of responses the module writes itself, negotiated using Accept-Encoding.
+ *
+ * <p>Netty's content compressor of the HTTP server leaves responses that already have a
+ * Content-Encoding header untouched, so this never compresses twice.
+ * Brotli isn't supported because the JDK has no Brotli encoder.
+ */
+public final class Compression {
+
+  /** Set to false to disable compression. */
+  public static final String COMPRESSION = "CONFIG_COMPRESSION";
+  /** Minimum size in bytes of a buffered response body to compress it. */
+  public static final String COMPRESSION_MIN_SIZE = "CONFIG_COMPRESSION_MIN_SIZE";
+  public static final String GZIP = "gzip";
+
+  private static final String ACCEPT_ENCODING = "Accept-Encoding";
+  private static final String CONTENT_ENCODING = "Content-Encoding";
+  private static final String VARY = "Vary";
+
+  private Compression() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+
+  /**
+   * @param acceptEncoding  the Accept-Encoding request header, may be null
+   * @return true if compression is enabled and acceptEncoding allows gzip
+   */
+  public static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null || ! Env.getBoolean(COMPRESSION, true)) {
+      return false;
+    }
+    boolean wildcard = false;
+    for (String part : acceptEncoding.split(",")) {
+      String [] params = part.trim().split(";");
+      String coding = params[0].trim().toLowerCase(Locale.ROOT);
+      boolean allowed = quality(params) > 0;
+      if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+        return allowed;
+      }
+      if ("*".equals(coding)) {
+        wildcard = allowed;
+      }
+    }
+    return wildcard;
+  }
+
+  private static double quality(String [] params) {
+    for (int i = 1; i < params.length; i++) {
+      String param = params[i].trim();
+      if (param.startsWith("q=")) {
+        try {
+          return Double.parseDouble(param.substring(2));
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  public static int minSize() {
+    return Env.getInt(COMPRESSION_MIN_SIZE, 1024);
+  }
+
+  /**
+   * Write body and end the response, gzip compressed if gzip is true and body isn't smaller than {@link #minSize()}.
+   */
+  public static void end(HttpServerResponse response, String body, boolean gzip) {
+    response.putHeader(VARY, ACCEPT_ENCODING);
+    if (! gzip || body.length() < minSize()) {
+      response.end(body);
+      return;
+    }
+    Writer writer = new Writer(response, true);
+    writer.write(body);
+    writer.end();
+  }
+
+  /**
+   * Writes chunks of a response, optionally gzip compressed. Text is collected until {@link #flush()}.
+   */
+  public static class Writer {
+    private final HttpServerResponse response;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final GZIPOutputStream gzip;
+    private long written;
+
+    /**
+     * Set the Content-Encoding and Vary headers; the headers are sent on the first {@link #flush()}.
+     */
+    public Writer(HttpServerResponse response, boolean gzip) {
+      this.response = response;
+      response.putHeader(VARY, ACCEPT_ENCODING);
+      if (! gzip) {
+        this.gzip = null;
+        return;
+      }
+      response.putHeader(CONTENT_ENCODING, GZIP);
+      try {
+        this.gzip = new GZIPOutputStream(bytes, 8192, true);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    public void write(String s) {
+      byte [] b = s.getBytes(StandardCharsets.UTF_8);
+      if (gzip == null) {
+        bytes.write(b, 0, b.length);
+        return;
+      }
+      try {
+        gzip.write(b);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Send the text written so far.
+     *
+     * @return true if the write queue of the response is full and the caller should wait for its drain handler
+     */
+    public boolean flush() {
+      if (gzip != null) {
+        try {
+          gzip.flush();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      if (bytes.size() > 0) {
+        if (written == 0) {
+          response.setChunked(true);
+        }
+        written += bytes.size();
+        response.write(Buffer.buffer(bytes.toByteArray()));
+        bytes.reset();
+      }
+      return response.writeQueueFull();
+    }
+
+    /**
+     * @return whether something has been sent, after that the status can no longer change
+     */
+    public boolean hasWritten() {
+      return written > 0;
+    }
+
+    public void end() {
+      if (gzip != null) {
+        try {
+          gzip.finish();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      response.end(Buffer.buffer(bytes.toByteArray()));
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package org.folio.config;
+
+import io.vertx.core.json.JsonArray;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded per-tenant cache of serialized GET /configurations/entries and /configurations/effective responses.
+ *
+ * <p>The key is the normalized CQL query plus offset and limit, a cache hit doesn't touch the database.
+ * A response is stored with the collection ETag it was read under, if known. All entries of a tenant are
+ * dropped when that tenant writes a configuration entry through this module instance, a write through
+ * another module instance is seen after the TTL. Each tenant has a generation number that is incremented
+ * on invalidation; a response that was fetched before an invalidation is not stored so that a slow read
+ * cannot put stale data back into the cache.
+ *
+ * <p>The cache is disabled if the maximum size is 0.
+ */
+public class ConfigCache {
+
+  /** Maximum number of cached responses per tenant, 0 disables the cache. */
+  public static final String CACHE_SIZE = "CONFIG_CACHE_SIZE";
+  /** Time to live of a cached response in milliseconds. */
+  public static final String CACHE_TTL_MS = "CONFIG_CACHE_TTL_MS";
+
+  private static volatile ConfigCache instance = fromEnv();
+
+  private final int maxSize;
+  private final long ttlMillis;
+  private final LongSupplier clock;
+  private final Map<String, TenantCache> tenants = new HashMap<>();
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  ConfigCache(int maxSize, long ttlMillis, LongSupplier clock) {
+    this.maxSize = maxSize;
+    this.ttlMillis = ttlMillis;
+    this.clock = clock;
+  }
+
+  public static ConfigCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replace the instance by a new empty one with the current CONFIG_CACHE_SIZE and CONFIG_CACHE_TTL_MS, for tests.
+   */
+  public static void reload() {
+    instance = fromEnv();
+  }
+
+  private static ConfigCache fromEnv() {
+    return new ConfigCache(Env.getInt(CACHE_SIZE, 0), Env.getLong(CACHE_TTL_MS, 10000), System::currentTimeMillis);
+  }
+
+  public boolean isEnabled() {
+    return maxSize > 0 && ttlMillis > 0;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getTtlMillis() {
+    return ttlMillis;
+  }
+
+  /**
+   * The cache key of a collection GET.
+   *
+   * @param cql  the CQL query, may be null
+   * @return key where whitespace differences of the CQL query don't matter
+   */
+  public static String key(String cql, int offset, int limit) {
+    String normalized = cql == null ? "" : cql.trim().replaceAll("\\s+", " ");
+    return offset + " " + limit + " " + normalized;
+  }
+
+  /**
+   * The cache key of GET /configurations/effective, it cannot collide with a collection GET key.
+   */
+  public static String effectiveKey(String module, String configName, String code, String userId) {
+    return "effective " + new JsonArray().add(module).add(configName).add(code).add(userId).encode();
+  }
+
+  /**
+   * The current generation of the tenant, pass it to {@link #put} after fetching the response.
+   */
+  public synchronized long generation(String tenantId) {
+    return tenant(tenantId).generation;
+  }
+
+  /**
+   * @return the cached response body, or null if not cached or expired
+   */
+  public String get(String tenantId, String key) {
+    Cached cached = getCached(tenantId, key);
+    return cached == null ? null : cached.getBody();
+  }
+
+  /**
+   * @return the cached response body and its ETag, or null if not cached or expired
+   */
+  public synchronized Cached getCached(String tenantId, String key) {
+    TenantCache tenantCache = tenants.get(tenantId);
+    Entry entry = tenantCache == null ? null : tenantCache.entries.get(key);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    if (entry.expires <= clock.getAsLong()) {
+      tenantCache.entries.remove(key);
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.cached;
+  }
+
+  /**
+   * Store the response body unless the tenant has been invalidated since generation was taken.
+   */
+  public void put(String tenantId, long generation, String key, String body) {
+    put(tenantId, generation, key, null, body);
+  }
+
+  /**
+   * Store the response body and the ETag it was read under unless the tenant has been invalidated since
+   * generation was taken.
+   *
+   * @param etag  the collection ETag taken before the query, see {@link ETags#ofCollection}; may be null
+   */
+  public synchronized void put(String tenantId, long generation, String key, String etag, String body) {
+    if (!isEnabled()) {
+      return;
+    }
+    TenantCache tenantCache = tenant(tenantId);
+    if (tenantCache.generation != generation) {
+      return;
+    }
+    tenantCache.entries.put(key, new Entry(new Cached(body, etag), clock.getAsLong() + ttlMillis));
+  }
+
+  /**
+   * Remove all cached responses of the tenant.
+   */
+  public synchronized void invalidate(String tenantId) {
+    TenantCache tenantCache = tenant(tenantId);
+    tenantCache.entries.clear();
+    tenantCache.generation++;
+  }
+
+  public synchronized void clear() {
+    tenants.values().forEach(tenantCache -> {
+      tenantCache.entries.clear();
+      tenantCache.generation++;
+    });
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  public synchronized int size() {
+    return tenants.values().stream().mapToInt(tenantCache -> tenantCache.entries.size()).sum();
+  }
+
+  private TenantCache tenant(String tenantId) {
+    return tenants.computeIfAbsent(tenantId, x -> new TenantCache());
+  }
+
+  /**
+   * A cached response body and the collection ETag it was read under.
+   */
+  public static class Cached {
+    private final String body;
+    private final String etag;
+
+    Cached(String body, String etag) {
+      this.body = body;
+      this.etag = etag;
+    }
+
+    public String getBody() {
+      return body;
+    }
+
+    /**
+     * @return the ETag, null if unknown
+     */
+    public String getETag() {
+      return etag;
+    }
+  }
+
+  private static class Entry {
+    private final Cached cached;
+    private final long expires;
+
+    Entry(Cached cached, long expires) {
+      this.cached = cached;
+      this.expires = expires;
+    }
+  }
+
+  private class TenantCache {
+    private long generation;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        if (size() <= maxSize) {
+          return false;
+        }
+        evictions++;
+        return true;
+      }
+    };
+  }
+}
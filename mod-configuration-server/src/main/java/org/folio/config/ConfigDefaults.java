@@ -0,0 +1,63 @@
+package org.folio.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.folio.dbschema.ObjectMapperTool;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.ValueJson;
+
+/**
+ * Default values of configuration entries that are set before writing them.
+ */
+public final class ConfigDefaults {
+
+  private ConfigDefaults() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+
+  /**
+   * Set enabled to true if it is missing.
+   */
+  public static void defaultToEnabled(Config entity) {
+    if (entity.getEnabled() == null) {
+      entity.setEnabled(true);
+    }
+  }
+
+  /**
+   * Keep value and valueJson in sync, value takes precedence: If value is a JSON object set valueJson
+   * to it, otherwise remove valueJson. If value is missing set it to the encoded valueJson.
+   *
+   * <p>The migration config_data_value_json.sql does the same for existing entries.
+   */
+  public static void syncValueJson(Config entity) {
+    if (entity.getValue() == null) {
+      if (entity.getValueJson() != null) {
+        entity.setValue(encode(entity.getValueJson()));
+      }
+      return;
+    }
+    entity.setValueJson(parse(entity.getValue()));
+  }
+
+  /**
+   * @return value as JSON object, or null if value is not a JSON object
+   */
+  static ValueJson parse(String value) {
+    if (! value.stripLeading().startsWith("{")) {
+      return null;
+    }
+    try {
+      return ObjectMapperTool.getMapper().readValue(value, ValueJson.class);
+    } catch (JsonProcessingException e) {
+      return null;
+    }
+  }
+
+  private static String encode(ValueJson valueJson) {
+    try {
+      return ObjectMapperTool.getMapper().writeValueAsString(valueJson);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
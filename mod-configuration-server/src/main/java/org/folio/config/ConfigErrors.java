@@ -0,0 +1,61 @@
+package org.folio.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.Error;
+import org.folio.rest.jaxrs.model.Errors;
+import org.folio.rest.persist.PgExceptionUtil;
+
+/**
+ * Errors of configuration entry writes.
+ */
+public final class ConfigErrors {
+
+  private ConfigErrors() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+
+  /**
+   * @return whether cause is a violation of one of the four module, configName, code and userId unique indexes
+   */
+  public static boolean isNotUniqueModuleConfigAndCode(Throwable cause) {
+    if (cause == null) {
+      return false;
+    }
+
+    final String message = PgExceptionUtil.badRequestMessage(cause);
+
+    if (message == null) {
+      return false;
+    }
+
+    return message.contains("config_data_module_configname_code_idx_unique")
+      || message.contains("config_data_module_configname_idx_unique")
+      || message.contains("config_data_module_configname_code_userid_idx_unique")
+      || message.contains("config_data_module_configname_userid_idx_unique");
+  }
+
+  public static Errors uniqueModuleConfigAndCodeError(Config entity) {
+    final Error error = new Error()
+      .withMessage("Cannot have more than one tenant or user record with the same module, config name and code")
+      .withAdditionalProperty("module", entity.getModule())
+      .withAdditionalProperty("configName", entity.getConfigName())
+      .withAdditionalProperty("code", entity.getCode())
+      .withAdditionalProperty("userId", entity.getUserId());
+
+    final List<Error> errorList = new ArrayList<>();
+    errorList.add(error);
+
+    final Errors errors = new Errors();
+    errors.setErrors(errorList);
+
+    return errors;
+  }
+
+  public static Errors error(String message) {
+    final List<Error> errorList = new ArrayList<>();
+    errorList.add(new Error().withMessage(message));
+    return new Errors().withErrors(errorList);
+  }
+}
@@ -0,0 +1,151 @@
+package org.folio.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.core.Response;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.tools.utils.TenantTool;
+
+/**
+ * Micrometer metrics of the configuration API in Prometheus format, see GET /admin/metrics.
+ *
+ * <p>configuration.requests is a timer per operation, tenant, outcome and HTTP status,
+ * configuration.unique.violations counts the entries rejected with 422 because they violate
+ * the module, configName, code uniqueness, configuration.coalesced counts the requests that got the
+ * result of an identical in-flight query, see {@link SingleFlight}, configuration.rejected counts the
+ * requests rejected with 429 by {@link AdmissionControl} per tenant and reason.
+ *
+ * <p>configuration.http.requests.in_progress is the number of API requests of the module instance
+ * that haven't been responded yet, configuration.db.pool.max the maxPoolSize database setting. The
+ * Vert.x SQL pool exposes its usage only through a Vert.x metrics implementation that RMB doesn't
+ * enable, therefore there are no gauges of the active, idle and waiting connections.
+ */
+public final class ConfigMetrics {
+
+  public static final String REQUESTS = "configuration.requests";
+  public static final String UNIQUE_VIOLATIONS = "configuration.unique.violations";
+  public static final String COALESCED = "configuration.coalesced";
+  public static final String REJECTED = "configuration.rejected";
+  public static final String IN_PROGRESS_REQUESTS = "configuration.http.requests.in_progress";
+  public static final String POOL_MAX = "configuration.db.pool.max";
+
+  private static final PrometheusMeterRegistry REGISTRY = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+  private static final AtomicInteger IN_PROGRESS = new AtomicInteger();
+  /** RMB's default of the maxPoolSize database configuration. */
+  private static final int DEFAULT_MAX_POOL_SIZE = 4;
+  private static int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+
+  static {
+    Gauge.builder(IN_PROGRESS_REQUESTS, IN_PROGRESS::get)
+        .description("API requests in progress").register(REGISTRY);
+    Gauge.builder(POOL_MAX, () -> maxPoolSize)
+        .description("Maximum number of connections").register(REGISTRY);
+  }
+
+  private ConfigMetrics() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+
+  /**
+   * @param size  the maxPoolSize of the database configuration
+   */
+  public static void setMaxPoolSize(int size) {
+    maxPoolSize = size;
+  }
+
+  /**
+   * Wrap asyncResultHandler so that the time until the response is recorded.
+   */
+  public static Handler<AsyncResult<Response>> timed(String operation, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler) {
+
+    String tenantId = tenantId(okapiHeaders);
+    Timer.Sample sample = start();
+    return reply -> {
+      stop(sample, operation, tenantId, reply.succeeded() ? reply.result().getStatus() : 500);
+      asyncResultHandler.handle(reply);
+    };
+  }
+
+  /**
+   * Record the time until the response of routingContext has been written.
+   */
+  public static void timed(String operation, Map<String, String> okapiHeaders, RoutingContext routingContext) {
+    String tenantId = tenantId(okapiHeaders);
+    Timer.Sample sample = start();
+    routingContext.addEndHandler(x -> stop(sample, operation, tenantId, routingContext.response().getStatusCode()));
+  }
+
+  public static void uniqueViolation(String tenantId) {
+    Counter.builder(UNIQUE_VIOLATIONS)
+        .description("Entries rejected because module, configName and code are not unique")
+        .tag("tenant", tenantId)
+        .register(REGISTRY)
+        .increment();
+  }
+
+  public static void coalesced(String tenantId) {
+    Counter.builder(COALESCED)
+        .description("Requests that got the result of an identical in-flight query")
+        .tag("tenant", tenantId)
+        .register(REGISTRY)
+        .increment();
+  }
+
+  /**
+   * @param reason  concurrency or rate, see {@link AdmissionControl.Rejection#getReason()}
+   */
+  public static void rejected(String tenantId, String reason) {
+    Counter.builder(REJECTED)
+        .description("Requests rejected with 429 by the per-tenant limits")
+        .tag("tenant", tenantId)
+        .tag("reason", reason)
+        .register(REGISTRY)
+        .increment();
+  }
+
+  /**
+   * @return all metrics in Prometheus text format
+   */
+  public static String scrape() {
+    return REGISTRY.scrape();
+  }
+
+  static String outcome(int status) {
+    if (status < 400) {
+      return "SUCCESS";
+    }
+    if (status < 500) {
+      return "CLIENT_ERROR";
+    }
+    return "SERVER_ERROR";
+  }
+
+  private static Timer.Sample start() {
+    IN_PROGRESS.incrementAndGet();
+    return Timer.start(REGISTRY);
+  }
+
+  private static void stop(Timer.Sample sample, String operation, String tenantId, int status) {
+    IN_PROGRESS.decrementAndGet();
+    sample.stop(Timer.builder(REQUESTS)
+        .description("Configuration API requests")
+        .tag("operation", operation)
+        .tag("tenant", tenantId)
+        .tag("outcome", outcome(status))
+        .tag("status", Integer.toString(status))
+        .register(REGISTRY));
+  }
+
+  private static String tenantId(Map<String, String> okapiHeaders) {
+    return TenantTool.calculateTenantId(okapiHeaders.get(RestVerticle.OKAPI_HEADER_TENANT));
+  }
+}
@@ -0,0 +1,92 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.folio.dbschema.ObjectMapperTool;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.Configs;
+import org.folio.rest.jaxrs.model.ResultInfo;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * CQL query of the config table, optionally combined with an additional SQL condition, for example
+ * {@link ValueJsonCondition}, that selects a superset of the matching rows but can use an index.
+ *
+ * <p>Unlike PostgresClient.get it can run against the read replica, see {@link ReadRouting}.
+ */
+public class ConfigQuery {
+
+  private final String tenantId;
+  private final String table;
+  private final String query;
+  private final String condition;
+  private String totalRecords;
+
+  /**
+   * @param sqlCondition  additional SQL condition, may be null
+   */
+  public ConfigQuery(String tenantId, String table, String query, String sqlCondition) {
+    this.tenantId = tenantId;
+    this.table = table;
+    this.query = query;
+    this.condition = sqlCondition;
+  }
+
+  /**
+   * @param totalRecords  exact, estimated or none, see {@link CqlSelect#count}; null for RMB's count
+   */
+  public ConfigQuery withTotalRecords(String totalRecords) {
+    this.totalRecords = totalRecords;
+    return this;
+  }
+
+  public Future<Configs> get(Queryable queryable, int offset, int limit) {
+    CqlSelect select;
+    try {
+      select = CqlSelect.of(tenantId, table, query, condition);
+    } catch (IllegalArgumentException e) {
+      return Future.failedFuture(e);
+    }
+    Future<Integer> count = select.count(totalRecords, queryable::execute);
+    Future<List<Config>> configs = queryable.execute(select.page("jsonb"), CqlSelect.pageParameters(offset, limit))
+        .map(rowSet -> {
+          List<Config> list = new ArrayList<>();
+          for (Row row : rowSet) {
+            list.add(toConfig(row));
+          }
+          return list;
+        });
+    return Future.all(count, configs)
+        .map(x -> new Configs()
+            .withConfigs(configs.result())
+            .withTotalRecords(count.result())
+            .withResultInfo(new ResultInfo().withTotalRecords(count.result())));
+  }
+
+  /**
+   * @return the entry, or null if there is no entry with that id
+   */
+  public static Future<Config> getById(Queryable queryable, String tenantId, String table, String id) {
+    UUID uuid;
+    try {
+      uuid = UUID.fromString(id);
+    } catch (IllegalArgumentException e) {
+      return Future.succeededFuture();
+    }
+    return queryable.execute("SELECT jsonb FROM " + PostgresClient.convertToPsqlStandard(tenantId) + "." + table
+        + " WHERE id = $1", Tuple.of(uuid))
+        .map(rowSet -> rowSet.iterator().hasNext() ? toConfig(rowSet.iterator().next()) : null);
+  }
+
+  private static Config toConfig(Row row) {
+    try {
+      return ObjectMapperTool.readValue(row.getJsonObject("jsonb").encode(), Config.class);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
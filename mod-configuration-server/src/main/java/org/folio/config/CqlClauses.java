@@ -0,0 +1,64 @@
+package org.folio.config;
+
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.cql2pgjson.model.SqlSelect;
+
+/**
+ * The WHERE condition and ORDER BY clause of a CQL query against the jsonb column of a table,
+ * optionally combined with an additional SQL condition.
+ */
+public final class CqlClauses {
+
+  private final String where;
+  private final String orderBy;
+
+  private CqlClauses(String where, String orderBy) {
+    this.where = where;
+    this.orderBy = orderBy;
+  }
+
+  /**
+   * @param table  the table name without schema, the CQL fields are the properties of its jsonb column
+   * @param query  the CQL query, null or blank for all records
+   * @param sqlCondition  additional SQL condition the records must match, may be null
+   * @throws IllegalArgumentException  if the CQL query is invalid, the message is the validation error
+   */
+  public static CqlClauses of(String table, String query, String sqlCondition) {
+    String where = "true";
+    String orderBy = "";
+    if (query != null && ! query.isBlank()) {
+      SqlSelect sqlSelect;
+      try {
+        sqlSelect = new CQL2PgJSON(table + ".jsonb").toSql(query);
+      } catch (Exception e) {
+        throw new IllegalArgumentException(e.getMessage(), e);
+      }
+      where = "(" + sqlSelect.getWhere() + ")";
+      if (sqlSelect.getOrderBy() != null && ! sqlSelect.getOrderBy().isEmpty()) {
+        orderBy = " ORDER BY " + sqlSelect.getOrderBy();
+      }
+    }
+    if (sqlCondition != null) {
+      where += " AND (" + sqlCondition + ")";
+    }
+    return new CqlClauses(where, orderBy);
+  }
+
+  /**
+   * @return the WHERE condition without the WHERE keyword, "true" for all records
+   */
+  public String getWhere() {
+    return where;
+  }
+
+  /**
+   * @return " ORDER BY ..." with a leading space, empty if the query has no sortBy
+   */
+  public String getOrderBy() {
+    return orderBy;
+  }
+
+  public boolean hasOrderBy() {
+    return ! orderBy.isEmpty();
+  }
+}
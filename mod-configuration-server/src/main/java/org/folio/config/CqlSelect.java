@@ -0,0 +1,67 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import java.util.function.Function;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * The SELECT of a page of the records of a CQL query and the count of all its records.
+ *
+ * <p>All collection GETs that don't use PgUtil build their SQL here, whether they decode the records,
+ * copy them as text or stream them, so that paging and totalRecords are the same for all of them.
+ */
+public final class CqlSelect {
+
+  private final String schema;
+  private final String from;
+  private final String orderBy;
+
+  private CqlSelect(String schema, String from, String orderBy) {
+    this.schema = schema;
+    this.from = from;
+    this.orderBy = orderBy;
+  }
+
+  /**
+   * @param table  the table name without schema, the CQL fields are the properties of its jsonb column
+   * @param query  the CQL query, null or blank for all records
+   * @param sqlCondition  additional SQL condition the records must match, may be null
+   * @throws IllegalArgumentException  if the CQL query is invalid, the message is the validation error
+   */
+  public static CqlSelect of(String tenantId, String table, String query, String sqlCondition) {
+    String schema = PostgresClient.convertToPsqlStandard(tenantId);
+    CqlClauses clauses = CqlClauses.of(table, query, sqlCondition);
+    return new CqlSelect(schema, " FROM " + schema + "." + table + " WHERE " + clauses.getWhere(),
+        clauses.getOrderBy());
+  }
+
+  /**
+   * @param select  the select list, for example "jsonb" or "jsonb::text AS jsonb"
+   * @return the SELECT statement of a page, the parameters are {@link #pageParameters(int, int)}
+   */
+  public String page(String select) {
+    return "SELECT " + select + from + orderBy + " LIMIT $1 OFFSET $2";
+  }
+
+  public static Tuple pageParameters(int offset, int limit) {
+    return Tuple.of(limit, offset);
+  }
+
+  /**
+   * Count the records of the query.
+   *
+   * @param totalRecords  exact, estimated or none, see {@link TotalRecords}; null counts like RMB:
+   *     exact for small results, estimated for large results
+   * @param execute  function that runs an SQL statement
+   * @return the number of records, null for none
+   */
+  public Future<Integer> count(String totalRecords, Function<String, Future<RowSet<Row>>> execute) {
+    if (totalRecords == null) {
+      return TotalRecords.countEstimate(schema, "SELECT jsonb" + from, execute);
+    }
+    return TotalRecords.count(totalRecords, from, execute);
+  }
+}
@@ -0,0 +1,77 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import java.util.Date;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Entity tags of configuration entries and collections.
+ */
+public final class ETags {
+
+  public static final String ETAG = "ETag";
+  public static final String IF_NONE_MATCH = "If-None-Match";
+
+  private ETags() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+
+  /**
+   * The _version the optimistic locking trigger increments on each write, combined with metadata.updatedDate
+   * so that the ETag also changes if an entry is deleted and created again with the same id.
+   *
+   * @return the ETag of the entry, or null if it has neither _version nor updatedDate
+   */
+  public static String of(Config config) {
+    if (config == null) {
+      return null;
+    }
+    Integer version = config.getVersion();
+    Date updatedDate = config.getMetadata() == null ? null : config.getMetadata().getUpdatedDate();
+    if (version == null && updatedDate == null) {
+      return null;
+    }
+    return "\"" + (version == null ? "" : version) + "-" + (updatedDate == null ? "" : updatedDate.getTime()) + "\"";
+  }
+
+  /**
+   * @return the ETag of any collection of the tenant, it changes on each write to the config table
+   */
+  public static Future<String> ofCollection(Queryable queryable, String tenantId) {
+    return queryable.execute("SELECT version FROM "
+        + PostgresClient.convertToPsqlStandard(tenantId) + ".config_data_version")
+        .map(rowSet -> "\"v" + rowSet.iterator().next().getLong("version") + "\"");
+  }
+
+  /**
+   * Weak comparison as required for If-None-Match.
+   *
+   * @param ifNoneMatch  the If-None-Match header value: *, or a comma separated list of entity tags
+   * @param etag  the current entity tag, may be null
+   * @return true if ifNoneMatch matches etag
+   */
+  public static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || etag == null) {
+      return false;
+    }
+    if ("*".equals(ifNoneMatch.trim())) {
+      return true;
+    }
+    String opaque = opaque(etag);
+    for (String tag : ifNoneMatch.split(",")) {
+      if (opaque(tag).equals(opaque)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String opaque(String tag) {
+    String s = tag.trim();
+    if (s.startsWith("W/")) {
+      return s.substring(2);
+    }
+    return s;
+  }
+}
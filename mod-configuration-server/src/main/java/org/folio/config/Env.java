@@ -0,0 +1,46 @@
+package org.folio.config;
+
+/**
+ * Module settings read from a system property or, if not set, from the environment variable of the same name.
+ */
+public final class Env {
+
+  private Env() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+
+  public static String getString(String name, String defaultValue) {
+    String value = System.getProperty(name);
+    if (value == null || value.isBlank()) {
+      value = System.getenv(name);
+    }
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    return value.trim();
+  }
+
+  public static int getInt(String name, int defaultValue) {
+    return (int) getLong(name, defaultValue);
+  }
+
+  public static long getLong(String name, long defaultValue) {
+    String value = getString(name, null);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(name + " must be a number but is: " + value, e);
+    }
+  }
+
+  public static boolean getBoolean(String name, boolean defaultValue) {
+    String value = getString(name, null);
+    if (value == null) {
+      return defaultValue;
+    }
+    return Boolean.parseBoolean(value);
+  }
+}
@@ -0,0 +1,153 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.folio.rest.jaxrs.model.Facet;
+import org.folio.rest.jaxrs.model.FacetValue;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * The module and code facets of GET /configurations/entries from the counts the trigger of the
+ * migration config_data_facet_counts.sql maintains, instead of aggregating the matching records.
+ *
+ * <p>This is used if the query is empty, {@code cql.allRecords=1} or {@code module==X}, and all
+ * facets are module or code. Like the CQL {@code ==} on the module index the module match is case
+ * insensitive. Entries without code are not counted in the code facet.
+ */
+public final class FacetCounts {
+
+  public static final String TABLE = "config_data_facet_counts";
+  /** RMB's default number of values of a facet. */
+  private static final int DEFAULT_LIMIT = 5;
+  private static final Pattern FACET = Pattern.compile("(module|code)(?::(\\d{1,6}))?");
+  private static final Pattern ALL_RECORDS = Pattern.compile("\\s*cql\\.allRecords\\s*=\\s*1\\s*");
+  private static final Pattern MODULE = Pattern.compile(
+      "\\s*module\\s*==\\s*(?:\"([^\"\\\\*?^]+)\"|([\\w.-]+))\\s*");
+
+  private final String module;
+  private final Map<String, Integer> facets;
+
+  private FacetCounts(String module, Map<String, Integer> facets) {
+    this.module = module;
+    this.facets = facets;
+  }
+
+  /**
+   * @return the module of a {@code module==X} query, null for all modules
+   */
+  public String getModule() {
+    return module;
+  }
+
+  /**
+   * @return facet name and maximum number of values
+   */
+  public Map<String, Integer> getFacets() {
+    return facets;
+  }
+
+  /**
+   * @param facets  the facets parameter like code:10
+   * @return the facet counts, or null if query or facets need the aggregation of the matching records
+   */
+  public static FacetCounts parse(String query, List<String> facets) {
+    if (facets == null || facets.isEmpty()) {
+      return null;
+    }
+    Map<String, Integer> limits = new LinkedHashMap<>();
+    for (String facet : facets) {
+      Matcher matcher = FACET.matcher(facet.trim());
+      if (! matcher.matches()) {
+        return null;
+      }
+      limits.put(matcher.group(1), matcher.group(2) == null ? DEFAULT_LIMIT : Integer.parseInt(matcher.group(2)));
+    }
+    if (query == null || query.isBlank() || ALL_RECORDS.matcher(query).matches()) {
+      return new FacetCounts(null, limits);
+    }
+    Matcher matcher = MODULE.matcher(query);
+    if (! matcher.matches()) {
+      return null;
+    }
+    String value = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    if (matcher.group(2) != null && isKeyword(value)) {
+      return null;
+    }
+    return new FacetCounts(value, limits);
+  }
+
+  /**
+   * @return the total number of matching entries
+   */
+  public Future<Integer> totalRecords(Queryable queryable, String tenantId) {
+    return queryable.execute("SELECT coalesce(sum(count), 0)::bigint FROM " + table(tenantId) + where(""), params())
+        .map(rowSet -> rowSet.iterator().next().getLong(0).intValue());
+  }
+
+  /**
+   * @return the facets in the order of the facets parameter
+   */
+  public Future<List<Facet>> facets(Queryable queryable, String tenantId) {
+    List<Future<Facet>> futures = new ArrayList<>();
+    facets.forEach((name, limit) -> futures.add(facet(queryable, tenantId, name, limit)));
+    return Future.all(futures).map(x -> {
+      List<Facet> list = new ArrayList<>();
+      futures.forEach(future -> list.add(future.result()));
+      return list;
+    });
+  }
+
+  private Future<Facet> facet(Queryable queryable, String tenantId, String name, int limit) {
+    String sql = "SELECT " + name + " AS value, sum(count)::bigint AS n FROM " + table(tenantId)
+        + where("code".equals(name) ? "code IS NOT NULL" : "")
+        + " GROUP BY " + name + " HAVING sum(count) > 0 ORDER BY n DESC, value LIMIT " + limit;
+    return queryable.execute(sql, params())
+        .map(rowSet -> {
+          List<FacetValue> values = new ArrayList<>();
+          for (Row row : rowSet) {
+            values.add(new FacetValue().withValue(row.getString("value")).withCount(row.getLong("n").intValue()));
+          }
+          return new Facet().withType(name).withFacetValues(values);
+        });
+  }
+
+  private String where(String condition) {
+    List<String> conditions = new ArrayList<>(2);
+    if (module != null) {
+      conditions.add("lower(module) = lower($1)");
+    }
+    if (! condition.isEmpty()) {
+      conditions.add(condition);
+    }
+    return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+  }
+
+  private Tuple params() {
+    return module == null ? Tuple.tuple() : Tuple.of(module);
+  }
+
+  private static String table(String tenantId) {
+    return PostgresClient.convertToPsqlStandard(tenantId) + "." + TABLE;
+  }
+
+  private static boolean isKeyword(String value) {
+    switch (value.toLowerCase(Locale.ROOT)) {
+      case "and":
+      case "or":
+      case "not":
+      case "prox":
+      case "sortby":
+        return true;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.folio.dbschema.ObjectMapperTool;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.ConfigLookupKey;
+import org.folio.rest.jaxrs.model.ConfigLookupResult;
+import org.folio.rest.jaxrs.model.ConfigLookupResults;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Fetch the enabled entries of many module, configName, code, userId keys in a single SQL query.
+ *
+ * <p>The keys are passed as arrays and unnested. Each key shape (with or without code,
+ * with or without userId) has its own UNION ALL branch with the predicate of the matching
+ * partial unique index of schema.json so that each key is an index lookup. Like {@link PointLookup}
+ * the branches recheck the case insensitive match the CQL query {@code module==A} does.
+ */
+public class KeyLookup {
+
+  /** Maximum number of keys of a lookup. */
+  public static final String LOOKUP_MAX_SIZE = "CONFIG_LOOKUP_MAX_SIZE";
+
+  private static final String KEYS =
+      "WITH k AS (SELECT * FROM unnest($1::text[], $2::text[], $3::text[], $4::text[])"
+      + " WITH ORDINALITY AS k(module, config_name, code, user_id, i))";
+
+  private final String table;
+  private final List<ConfigLookupKey> keys;
+
+  public KeyLookup(String tenantId, String table, List<ConfigLookupKey> keys) {
+    this.table = PostgresClient.convertToPsqlStandard(tenantId) + "." + table;
+    this.keys = keys;
+  }
+
+  public static int maxSize() {
+    return Env.getInt(LOOKUP_MAX_SIZE, 1000);
+  }
+
+  /**
+   * @return the result of each key in request order
+   */
+  public Future<ConfigLookupResults> run(PostgresClient postgresClient) {
+    int n = keys.size();
+    String [] modules = new String [n];
+    String [] configNames = new String [n];
+    String [] codes = new String [n];
+    String [] userIds = new String [n];
+    List<ConfigLookupResult> results = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      ConfigLookupKey key = keys.get(i);
+      modules[i] = key.getModule();
+      configNames[i] = key.getConfigName();
+      codes[i] = key.getCode();
+      userIds[i] = key.getUserId();
+      results.add(new ConfigLookupResult().withIndex(i).withModule(key.getModule())
+          .withConfigName(key.getConfigName()).withCode(key.getCode()).withUserId(key.getUserId()));
+    }
+    return postgresClient.execute(sql(table), Tuple.of(modules, configNames, codes, userIds))
+        .map(rowSet -> {
+          int found = 0;
+          for (Row row : rowSet) {
+            ConfigLookupResult result = results.get(row.getLong("i").intValue() - 1);
+            if (result.getConfig() == null) {
+              found++;
+            }
+            result.setConfig(toConfig(row));
+          }
+          return new ConfigLookupResults().withResults(results).withTotalRecords(found);
+        });
+  }
+
+  /**
+   * The enabled entry of key, if key has a userId and there is no entry for that user the tenant
+   * entry of key without userId. Both are fetched in a single query.
+   *
+   * @return the entry, or null if there is none
+   */
+  public static Future<Config> effective(PostgresClient postgresClient, String tenantId, String table,
+      ConfigLookupKey key) {
+
+    List<ConfigLookupKey> keys = new ArrayList<>(2);
+    keys.add(key);
+    if (key.getUserId() != null) {
+      keys.add(new ConfigLookupKey().withModule(key.getModule()).withConfigName(key.getConfigName())
+          .withCode(key.getCode()));
+    }
+    return new KeyLookup(tenantId, table, keys).run(postgresClient)
+        .map(results -> results.getResults().stream()
+            .map(ConfigLookupResult::getConfig)
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(null));
+  }
+
+  static String sql(String table) {
+    return KEYS
+        + branch(table, false, false)
+        + " UNION ALL" + branch(table, true, false)
+        + " UNION ALL" + branch(table, false, true)
+        + " UNION ALL" + branch(table, true, true);
+  }
+
+  private static String branch(String table, boolean withCode, boolean withUserId) {
+    StringBuilder sql = new StringBuilder(" SELECT k.i, c.jsonb FROM k JOIN ").append(table).append(" c ON ")
+        .append(match("module", "module"))
+        .append(" AND ").append(match("configName", "config_name"));
+    if (withCode) {
+      sql.append(" AND ").append(match("code", "code"));
+    }
+    if (withUserId) {
+      sql.append(" AND ").append(match("userId", "user_id"));
+    }
+    // the predicate of the partial unique index
+    sql.append(" WHERE k.code IS ").append(withCode ? "NOT NULL" : "NULL")
+        .append(" AND k.user_id IS ").append(withUserId ? "NOT NULL" : "NULL")
+        .append(" AND (c.jsonb->'code') is ").append(withCode ? "not null" : "null")
+        .append(" AND (c.jsonb->'userId') is ").append(withUserId ? "not null" : "null")
+        .append(" AND (c.jsonb->>'enabled')::boolean is true");
+    return sql.toString();
+  }
+
+  private static String match(String field, String column) {
+    return "lower(f_unaccent(c.jsonb->>'" + field + "')) = lower(f_unaccent(k." + column + "))"
+        + " AND lower(c.jsonb->>'" + field + "') = lower(k." + column + ")";
+  }
+
+  private static Config toConfig(Row row) {
+    try {
+      return ObjectMapperTool.readValue(row.getJsonObject("jsonb").encode(), Config.class);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
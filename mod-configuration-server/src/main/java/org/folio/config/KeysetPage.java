@@ -0,0 +1,159 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Keyset (cursor) pagination ordered by id.
+ *
+ * <p>Unlike offset paging the cost of a page doesn't depend on its position, and no count is run.
+ * The cursor is the base64url encoded id of the last record of the previous page,
+ * {@link #START} for the first page.
+ */
+public class KeysetPage {
+
+  public static final String START = "start";
+
+  private static final String PREFIX = "id:";
+
+  private final String schemaTable;
+  private final String table;
+  private final String query;
+  private final UUID after;
+  private final int limit;
+  private String condition;
+  private Projection projection;
+
+  /**
+   * @param cursor  {@link #START} or the nextCursor of the previous page
+   * @throws IllegalArgumentException if cursor is invalid or the query has a sortBy clause
+   */
+  public KeysetPage(String tenantId, String table, String query, String cursor, int limit) {
+    this.schemaTable = PostgresClient.convertToPsqlStandard(tenantId) + "." + table;
+    this.table = table;
+    this.query = query;
+    this.after = decode(cursor);
+    this.limit = limit;
+  }
+
+  /**
+   * @param sqlCondition  additional SQL condition the records must match, may be null
+   */
+  public KeysetPage withCondition(String sqlCondition) {
+    this.condition = sqlCondition;
+    return this;
+  }
+
+  /**
+   * @param projection  the properties to return, null for all
+   */
+  public KeysetPage withProjection(Projection projection) {
+    this.projection = projection;
+    return this;
+  }
+
+  /**
+   * @return the cursor of the page after the record with this id
+   */
+  public static String encode(String id) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  static UUID decode(String cursor) {
+    if (START.equals(cursor)) {
+      return null;
+    }
+    try {
+      String s = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (! s.startsWith(PREFIX)) {
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+      }
+      return UUID.fromString(s.substring(PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+  }
+
+  /**
+   * @return the jsonb of the records of the page and the cursor of the next page, null if this is the last page
+   */
+  public Future<Page> get(Queryable queryable) {
+    String sql;
+    try {
+      sql = sql();
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+    Tuple tuple = after == null ? Tuple.of(limit) : Tuple.of(limit, after);
+    return queryable.execute(sql, tuple)
+        .map(rowSet -> {
+          List<JsonObject> records = new ArrayList<>();
+          String lastId = null;
+          for (Row row : rowSet) {
+            records.add(row.getJsonObject("jsonb"));
+            lastId = row.getUUID("id").toString();
+          }
+          String nextCursor = records.size() < limit || lastId == null ? null : encode(lastId);
+          return new Page(records, nextCursor);
+        });
+  }
+
+  /**
+   * The first page has no cursor condition so that the planner doesn't have to plan for both cases,
+   * later pages have id > $2.
+   *
+   * @return the SQL with the parameters $1 = limit and, unless first page, $2 = id of the cursor
+   */
+  String sql() {
+    String select = projection == null ? "jsonb" : projection.sql() + " AS jsonb";
+    return "SELECT id, " + select + " FROM " + schemaTable
+        + " WHERE " + where() + (after == null ? "" : " AND id > $2")
+        + " ORDER BY id LIMIT $1";
+  }
+
+  private String where() {
+    CqlClauses clauses = CqlClauses.of(table, query, condition);
+    if (clauses.hasOrderBy()) {
+      throw new IllegalArgumentException("cursor cannot be combined with sortBy, pages are sorted by id");
+    }
+    return clauses.getWhere();
+  }
+
+  public static class Page {
+    private final List<JsonObject> records;
+    private final String nextCursor;
+
+    Page(List<JsonObject> records, String nextCursor) {
+      this.records = records;
+      this.nextCursor = nextCursor;
+    }
+
+    public List<JsonObject> getRecords() {
+      return records;
+    }
+
+    public String getNextCursor() {
+      return nextCursor;
+    }
+
+    /**
+     * Encode as collection with the records in the arrayName property.
+     */
+    public String encode(String arrayName) {
+      JsonObject json = new JsonObject().put(arrayName, new JsonArray(new ArrayList<>(records)));
+      if (nextCursor != null) {
+        json.put("nextCursor", nextCursor);
+      }
+      return json.encode();
+    }
+  }
+}
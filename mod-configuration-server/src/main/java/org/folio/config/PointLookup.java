@@ -0,0 +1,165 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Fast path for the CQL query {@code module==A and configName==B and code==C}.
+ *
+ * <p>Instead of the CQL to SQL translation this uses a prepared statement.
+ * The enabled tenant records are looked up using the
+ * config_data_module_configname_code_idx_unique index, the disabled and the user records
+ * using the module index. Both branches recheck the case insensitive match the
+ * CQL query does.
+ */
+public final class PointLookup {
+
+  private static final Pattern TERM = Pattern.compile(
+      "\\s*(module|configName|code)\\s*==\\s*(\"((?:[^\"\\\\]|\\\\.)*)\"|([^\\s\"()/][^\\s\"()]*))\\s*");
+  private static final Pattern AND = Pattern.compile("\\s+and\\s+", Pattern.CASE_INSENSITIVE);
+  private static final String WHERE =
+      " WHERE lower(f_unaccent(jsonb->>'module')) = lower(f_unaccent($1))"
+      + " AND lower(f_unaccent(jsonb->>'configName')) = lower(f_unaccent($2))"
+      + " AND lower(f_unaccent(jsonb->>'code')) = lower(f_unaccent($3))"
+      + " AND lower(jsonb->>'module') = lower($1)"
+      + " AND lower(jsonb->>'configName') = lower($2)"
+      + " AND lower(jsonb->>'code') = lower($3)";
+  // the first branch has the predicate of the partial unique index
+  private static final String SQL =
+      "SELECT jsonb FROM %1$s" + WHERE
+      + " AND (jsonb->'code') is not null AND (jsonb->'userId') is null AND (jsonb->>'enabled')::boolean is true"
+      + " UNION ALL"
+      + " SELECT jsonb FROM %1$s" + WHERE
+      + " AND ((jsonb->'userId') is not null OR (jsonb->>'enabled')::boolean is not true)";
+
+  private final String module;
+  private final String configName;
+  private final String code;
+
+  private PointLookup(String module, String configName, String code) {
+    this.module = module;
+    this.configName = configName;
+    this.code = code;
+  }
+
+  public String getModule() {
+    return module;
+  }
+
+  public String getConfigName() {
+    return configName;
+  }
+
+  public String getCode() {
+    return code;
+  }
+
+  /**
+   * Recognize {@code module==A and configName==B and code==C} in any term order.
+   *
+   * @return the lookup, or null if cql has a different shape or uses masking characters
+   */
+  public static PointLookup parse(String cql) {
+    if (cql == null) {
+      return null;
+    }
+    String [] terms = AND.split(cql.trim());
+    if (terms.length != 3) {
+      return null;
+    }
+    Map<String, String> values = new HashMap<>();
+    for (String term : terms) {
+      Matcher matcher = TERM.matcher(term);
+      if (! matcher.matches()) {
+        return null;
+      }
+      String value = matcher.group(3) != null ? unescape(matcher.group(3)) : matcher.group(4);
+      if (value == null || value.isEmpty() || values.put(matcher.group(1), value) != null) {
+        return null;
+      }
+      if (matcher.group(4) != null && isSpecial(value)) {
+        return null;
+      }
+    }
+    if (values.size() != 3) {
+      return null;
+    }
+    return new PointLookup(values.get("module"), values.get("configName"), values.get("code"));
+  }
+
+  /**
+   * Run the lookup and return the encoded Configs collection.
+   */
+  public Future<String> get(Queryable queryable, String tenantId, String table, int offset, int limit) {
+    String sql = String.format(SQL, PostgresClient.convertToPsqlStandard(tenantId) + "." + table);
+    return queryable.execute(sql, Tuple.of(module, configName, code))
+        .map(rowSet -> {
+          JsonArray configs = new JsonArray();
+          int i = 0;
+          for (Row row : rowSet) {
+            if (i >= offset && configs.size() < limit) {
+              configs.add(row.getJsonObject("jsonb"));
+            }
+            i++;
+          }
+          return new JsonObject()
+              .put("configs", configs)
+              .put("totalRecords", i)
+              .put("resultInfo", new JsonObject()
+                  .put("totalRecords", i)
+                  .put("facets", new JsonArray())
+                  .put("diagnostics", new JsonArray()))
+              .encode();
+        });
+  }
+
+  /**
+   * Unescape a quoted CQL term.
+   *
+   * @return the term, or null if it contains masking characters * ? ^ that need the CQL translation
+   */
+  private static String unescape(String quoted) {
+    StringBuilder s = new StringBuilder(quoted.length());
+    for (int i = 0; i < quoted.length(); i++) {
+      char c = quoted.charAt(i);
+      if (c == '*' || c == '?' || c == '^') {
+        return null;
+      }
+      if (c == '\\') {
+        i++;
+        c = quoted.charAt(i);
+        if (c == '*' || c == '?' || c == '^' || c == '\\') {
+          // an escaped masking character has a different SQL translation, let CQL handle it
+          return null;
+        }
+      }
+      s.append(c);
+    }
+    return s.toString();
+  }
+
+  /**
+   * Unquoted CQL keywords and masking characters are left to the CQL translation.
+   */
+  private static boolean isSpecial(String value) {
+    switch (value.toLowerCase(Locale.ROOT)) {
+      case "and":
+      case "or":
+      case "not":
+      case "prox":
+      case "sortby":
+        return true;
+      default:
+        return value.contains("*") || value.contains("?") || value.contains("^") || value.contains("\\");
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+
+/**
+ * CQL query that returns the records reduced to a {@link Projection}.
+ *
+ * <p>The database returns the projected jsonb as text that is copied into the response
+ * without decoding it.
+ */
+public class ProjectedQuery {
+
+  private final String tenantId;
+  private final String table;
+  private final String query;
+  private final Projection projection;
+  private String condition;
+  private String totalRecords;
+
+  public ProjectedQuery(String tenantId, String table, String query, Projection projection) {
+    this.tenantId = tenantId;
+    this.table = table;
+    this.query = query;
+    this.projection = projection;
+  }
+
+  /**
+   * @param sqlCondition  additional SQL condition the records must match, may be null
+   */
+  public ProjectedQuery withCondition(String sqlCondition) {
+    this.condition = sqlCondition;
+    return this;
+  }
+
+  /**
+   * @param totalRecords  exact, estimated or none, see {@link CqlSelect#count}; null for RMB's count
+   */
+  public ProjectedQuery withTotalRecords(String totalRecords) {
+    this.totalRecords = totalRecords;
+    return this;
+  }
+
+  /**
+   * @return the encoded collection with the records in the arrayName property and totalRecords
+   */
+  public Future<String> get(Queryable queryable, String arrayName, int offset, int limit) {
+    CqlSelect select;
+    try {
+      select = CqlSelect.of(tenantId, table, query, condition);
+    } catch (IllegalArgumentException e) {
+      return Future.failedFuture(e);
+    }
+    Future<Integer> count = select.count(totalRecords, queryable::execute);
+    Future<String> records = queryable.execute(select.page(projection.sql() + "::text AS jsonb"),
+        CqlSelect.pageParameters(offset, limit))
+        .map(rowSet -> {
+          StringBuilder json = new StringBuilder("[");
+          for (Row row : rowSet) {
+            if (json.length() > 1) {
+              json.append(',');
+            }
+            json.append(row.getString("jsonb"));
+          }
+          return json.append(']').toString();
+        });
+    return Future.all(count, records)
+        .map(x -> "{\"" + arrayName + "\":" + records.result()
+            + (count.result() == null ? "" : ",\"totalRecords\":" + count.result()) + "}");
+  }
+}
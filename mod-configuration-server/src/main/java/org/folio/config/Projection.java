@@ -0,0 +1,65 @@
+package org.folio.config;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Projection of the jsonb of a record to the top-level properties of the fields query parameter.
+ *
+ * <p>The projection is done in SQL so that the other properties are neither transferred from
+ * the database nor decoded and encoded by the module.
+ */
+public final class Projection {
+
+  private final List<String> fields;
+
+  private Projection(List<String> fields) {
+    this.fields = fields;
+  }
+
+  /**
+   * @param fields  comma separated property names, may be null
+   * @param recordClass  generated class of the record, its properties are the allowed fields
+   * @return the projection, or null if fields is null or blank
+   * @throws IllegalArgumentException if a field is not a property of recordClass
+   */
+  public static Projection of(String fields, Class<?> recordClass) {
+    if (fields == null || fields.isBlank()) {
+      return null;
+    }
+    List<String> properties = Arrays.asList(recordClass.getAnnotation(JsonPropertyOrder.class).value());
+    List<String> list = new ArrayList<>();
+    for (String field : fields.split(",")) {
+      String name = field.trim();
+      if (! properties.contains(name)) {
+        throw new IllegalArgumentException("Unknown field " + name + ", valid fields are " + String.join(",", properties));
+      }
+      if (! list.contains(name)) {
+        list.add(name);
+      }
+    }
+    return new Projection(list);
+  }
+
+  public List<String> getFields() {
+    return fields;
+  }
+
+  /**
+   * @return SQL expression of the projected jsonb; the field names are validated and don't need quoting
+   */
+  public String sql() {
+    StringBuilder sql = new StringBuilder(
+        "(SELECT coalesce(jsonb_object_agg(p.key, p.value), '{}'::jsonb) FROM jsonb_each(jsonb) AS p(key, value)"
+        + " WHERE p.key IN (");
+    for (int i = 0; i < fields.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append('\'').append(fields.get(i)).append('\'');
+    }
+    return sql.append("))").toString();
+  }
+}
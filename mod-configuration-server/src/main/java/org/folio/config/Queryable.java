@@ -0,0 +1,79 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+import java.util.function.Function;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * The database a read query runs against: the primary using RMB's PostgresClient, or the
+ * read replica, see {@link ReadRouting}.
+ */
+public interface Queryable {
+
+  Future<RowSet<Row>> execute(String sql);
+
+  Future<RowSet<Row>> execute(String sql, Tuple params);
+
+  /**
+   * Run function with a connection inside a transaction.
+   */
+  <T> Future<T> withTrans(Function<SqlConnection, Future<T>> function);
+
+  /**
+   * @return true if this is the read replica
+   */
+  boolean isReplica();
+
+  static Queryable of(PostgresClient postgresClient) {
+    return new Queryable() {
+      @Override
+      public Future<RowSet<Row>> execute(String sql) {
+        return postgresClient.execute(sql);
+      }
+
+      @Override
+      public Future<RowSet<Row>> execute(String sql, Tuple params) {
+        return postgresClient.execute(sql, params);
+      }
+
+      @Override
+      public <T> Future<T> withTrans(Function<SqlConnection, Future<T>> function) {
+        return postgresClient.withTrans(conn -> function.apply(conn.getPgConnection()));
+      }
+
+      @Override
+      public boolean isReplica() {
+        return false;
+      }
+    };
+  }
+
+  static Queryable replica(Pool pool) {
+    return new Queryable() {
+      @Override
+      public Future<RowSet<Row>> execute(String sql) {
+        return pool.query(sql).execute();
+      }
+
+      @Override
+      public Future<RowSet<Row>> execute(String sql, Tuple params) {
+        return pool.preparedQuery(sql).execute(params);
+      }
+
+      @Override
+      public <T> Future<T> withTrans(Function<SqlConnection, Future<T>> function) {
+        return pool.withTransaction(function);
+      }
+
+      @Override
+      public boolean isReplica() {
+        return true;
+      }
+    };
+  }
+}
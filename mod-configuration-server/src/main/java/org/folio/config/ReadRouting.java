@@ -0,0 +1,159 @@
+package org.folio.config;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.ClientSSLOptions;
+import io.vertx.core.net.PemTrustOptions;
+import io.vertx.pgclient.PgBuilder;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.SslMode;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PoolOptions;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Route the reads of GET /configurations/entries, /configurations/entries/{entryId} and
+ * /configurations/audit to a read replica if DB_HOST_READER is set.
+ *
+ * <p>Read your writes: For CONFIG_READ_YOUR_WRITES_MS milliseconds after a write of a tenant
+ * the reads of that tenant go to the primary so that the tenant doesn't see data the replica
+ * hasn't replayed yet. The window should be larger than the replication lag. The writes are
+ * tracked per module instance.
+ *
+ * <p>The replica is connected with the database, user, password and SSL settings of the primary.
+ * All tenants share one replica pool of maxPoolSize connections per module instance, like the
+ * tenants share the pool of the primary.
+ */
+public class ReadRouting {
+
+  /** Host of the read replica, reads go to the primary if not set. */
+  public static final String HOST_READER = "DB_HOST_READER";
+  /** Port of the read replica, default is the port of the primary. */
+  public static final String PORT_READER = "DB_PORT_READER";
+  /** Milliseconds after a write of a tenant during which its reads go to the primary. */
+  public static final String READ_YOUR_WRITES_MS = "CONFIG_READ_YOUR_WRITES_MS";
+
+  private static volatile ReadRouting instance = fromEnv();
+
+  private final String host;
+  private final int port;
+  private final long windowMillis;
+  private final LongSupplier clock;
+  private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+  private Pool pool;
+
+  ReadRouting(String host, int port, long windowMillis, LongSupplier clock) {
+    this.host = host;
+    this.port = port;
+    this.windowMillis = windowMillis;
+    this.clock = clock;
+  }
+
+  public static ReadRouting getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replace the instance by a new one with the current DB_HOST_READER, DB_PORT_READER and
+   * CONFIG_READ_YOUR_WRITES_MS, for tests. The replica pool of the old instance is closed.
+   */
+  public static void reload() {
+    ReadRouting old = instance;
+    instance = fromEnv();
+    old.close();
+  }
+
+  private static ReadRouting fromEnv() {
+    return new ReadRouting(Env.getString(HOST_READER, null),
+        Env.getInt(PORT_READER, 0), Env.getLong(READ_YOUR_WRITES_MS, 10000), System::currentTimeMillis);
+  }
+
+  private synchronized void close() {
+    if (pool != null) {
+      pool.close();
+      pool = null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return host != null;
+  }
+
+  /**
+   * Record a write of the tenant, its reads go to the primary for the read your writes window.
+   */
+  public void written(String tenantId) {
+    if (isEnabled()) {
+      lastWrites.put(tenantId, clock.getAsLong());
+    }
+  }
+
+  /**
+   * @return true if the reads of the tenant can go to the replica
+   */
+  boolean useReplica(String tenantId) {
+    if (! isEnabled()) {
+      return false;
+    }
+    Long lastWrite = lastWrites.get(tenantId);
+    if (lastWrite == null) {
+      return true;
+    }
+    if (clock.getAsLong() - lastWrite < windowMillis) {
+      return false;
+    }
+    lastWrites.remove(tenantId, lastWrite);
+    return true;
+  }
+
+  /**
+   * @return the database the reads of the tenant should use
+   */
+  public Queryable reader(Vertx vertx, String tenantId) {
+    PostgresClient postgresClient = PostgresClient.getInstance(vertx, tenantId);
+    if (! useReplica(tenantId)) {
+      return Queryable.of(postgresClient);
+    }
+    return Queryable.replica(pool(vertx, postgresClient.getConnectionConfig()));
+  }
+
+  private synchronized Pool pool(Vertx vertx, JsonObject connectionConfig) {
+    if (pool == null) {
+      pool = PgBuilder.pool()
+          .with(new PoolOptions().setMaxSize(connectionConfig.getInteger("maxPoolSize", 4)))
+          .connectingTo(connectOptions(connectionConfig, host, port))
+          .using(vertx)
+          .build();
+    }
+    return pool;
+  }
+
+  /**
+   * The connect options of the primary with host and, if port is not 0, port replaced.
+   *
+   * <p>If the RMB connection config has a server_pem (DB_SERVER_PEM) the connection uses TLSv1.3
+   * and verifies the server certificate and host name, like RMB does for the primary.
+   */
+  public static PgConnectOptions connectOptions(JsonObject connectionConfig, String host, int port) {
+    PgConnectOptions options = new PgConnectOptions()
+        .setHost(host)
+        .setPort(port != 0 ? port : connectionConfig.getInteger("port", 5432))
+        .setDatabase(connectionConfig.getString("database"))
+        .setUser(connectionConfig.getString("username"))
+        .setPassword(connectionConfig.getString("password"));
+    String serverPem = connectionConfig.getString("server_pem");
+    if (serverPem != null) {
+      options.setSslMode(SslMode.VERIFY_FULL)
+          .setSslOptions(new ClientSSLOptions()
+              .setTrustOptions(new PemTrustOptions().addCertValue(Buffer.buffer(serverPem)))
+              .setHostnameVerificationAlgorithm("HTTPS")
+              .setEnabledSecureTransportProtocols(Set.of("TLSv1.3")));
+    }
+    return options;
+  }
+}
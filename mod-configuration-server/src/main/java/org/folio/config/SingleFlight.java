@@ -0,0 +1,81 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapse identical concurrent queries of a tenant into a single database query.
+ *
+ * <p>The first request of a key runs the query, requests with the same key that arrive before
+ * it completes get the same result. The key must contain the generation of {@link ConfigCache}
+ * so that a request that arrives after a write doesn't get the result of a query that started
+ * before the write.
+ *
+ * <p>Coalescing is enabled if CONFIG_SINGLE_FLIGHT is true, default is false: the coalesced result is
+ * buffered in memory, without coalescing large collections are streamed, see {@link CollectionStream}.
+ */
+public class SingleFlight {
+
+  /** true enables coalescing. */
+  public static final String SINGLE_FLIGHT = "CONFIG_SINGLE_FLIGHT";
+
+  private static volatile SingleFlight instance = fromEnv();
+
+  private final boolean enabled;
+  private final Map<String, Future<String>> inFlight = new ConcurrentHashMap<>();
+
+  SingleFlight(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public static SingleFlight getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replace the instance by a new one with the current CONFIG_SINGLE_FLIGHT, for tests.
+   */
+  public static void reload() {
+    instance = fromEnv();
+  }
+
+  private static SingleFlight fromEnv() {
+    return new SingleFlight(Env.getBoolean(SINGLE_FLIGHT, false));
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Return the result of the in-flight query of tenantId and key, or run query.
+   *
+   * @param query  the query, it is not called if an identical query is in flight
+   */
+  public Future<String> run(String tenantId, String key, Supplier<Future<String>> query) {
+    if (! enabled) {
+      return query.get();
+    }
+    String flightKey = tenantId + " " + key;
+    boolean [] started = { false };
+    Future<String> future = inFlight.computeIfAbsent(flightKey, x -> {
+      started[0] = true;
+      return query.get();
+    });
+    if (! started[0]) {
+      ConfigMetrics.coalesced(tenantId);
+      return future;
+    }
+    future.onComplete(x -> inFlight.remove(flightKey, future));
+    return future;
+  }
+
+  /**
+   * @return number of queries in flight
+   */
+  public int size() {
+    return inFlight.size();
+  }
+}
@@ -0,0 +1,235 @@
+package org.folio.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import org.folio.dbschema.ObjectMapperTool;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.tools.utils.MetadataUtil;
+
+/**
+ * Export and import all entries of a tenant as NDJSON, one jsonb per line.
+ *
+ * <p>The export streams the entries sorted by id from a database cursor, see {@link CollectionStream}.
+ * The import reads the lines chunk by chunk, validates each line against kv_configuration.schema,
+ * sets the defaults and metadata like a batch POST does, and upserts each chunk with a single INSERT of
+ * an unnested text array, all chunks in one transaction. The Vert.x PostgreSQL client has no
+ * COPY FROM STDIN, an array parameter is the closest: one statement and one parameter per chunk
+ * without the 65535 parameter limit of a multi-row VALUES list.
+ *
+ * <p>RMB buffers the whole request body in memory before the import starts, the decompression, parsing
+ * and validation of each chunk run on a worker thread so that they don't block the event loop.
+ */
+public class Snapshot {
+
+  /** Number of entries per INSERT statement of the import. */
+  public static final String CHUNK_SIZE = "CONFIG_SNAPSHOT_CHUNK_SIZE";
+
+  private static final int GZIP_MAGIC_1 = 0x1f;
+  private static final int GZIP_MAGIC_2 = 0x8b;
+  private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+  private final String table;
+
+  public Snapshot(String tenantId, String table) {
+    this.table = PostgresClient.convertToPsqlStandard(tenantId) + "." + table;
+  }
+
+  public static int chunkSize() {
+    return Env.getInt(CHUNK_SIZE, 1000);
+  }
+
+  /**
+   * Write all entries, one per line, and end the response.
+   *
+   * <p>If the returned future fails and {@link Compression.Writer#hasWritten()} is false the caller can
+   * still send an error response, otherwise the caller must close the connection.
+   */
+  public Future<Void> write(Queryable queryable, HttpServerResponse response, Compression.Writer writer) {
+    String sql = "SELECT jsonb::text AS jsonb FROM " + table + " ORDER BY id";
+    return queryable.withTrans(conn -> CollectionStream.stream(conn, sql, Tuple.tuple(), "\n", response, writer)
+        .map(rows -> {
+          if (rows > 0) {
+            writer.write("\n");
+          }
+          writer.end();
+          return null;
+        }));
+  }
+
+  /**
+   * Load the entries of the snapshot, the _version of the entries is ignored.
+   *
+   * @param inputStream  NDJSON, plain or gzip compressed; null for none
+   * @param replace  whether to delete all entries before loading
+   * @param okapiHeaders  for the metadata of the entries
+   * @return the number of entries loaded; a failed future with an {@link InvalidLineException} for a line
+   *     that doesn't match the schema, or an IllegalArgumentException for a line that isn't a JSON object
+   */
+  public Future<Integer> load(Vertx vertx, PostgresClient postgresClient, InputStream inputStream,
+      boolean replace, Map<String, String> okapiHeaders) {
+
+    return vertx.executeBlocking(() -> new Lines(inputStream, chunkSize()))
+        .compose(lines -> postgresClient.withTrans(conn -> {
+          Future<Void> future = Future.succeededFuture();
+          if (replace) {
+            future = conn.execute("DELETE FROM " + table).mapEmpty();
+          }
+          return future.compose(x -> load(vertx, conn, lines, okapiHeaders, 0));
+        }));
+  }
+
+  private Future<Integer> load(Vertx vertx, Conn conn, Lines lines, Map<String, String> okapiHeaders,
+      int loaded) {
+
+    return vertx.executeBlocking(() -> chunk(lines, okapiHeaders))
+        .compose(chunk -> {
+          if (chunk.length == 0) {
+            return Future.succeededFuture(loaded);
+          }
+          String sql = "INSERT INTO " + table + " (id, jsonb)"
+              + " SELECT (line::jsonb->>'id')::uuid, line::jsonb FROM unnest($1::text[]) AS line"
+              + " ON CONFLICT (id) DO UPDATE SET jsonb = EXCLUDED.jsonb - '_version'";
+          return conn.execute(sql, Tuple.tuple().addValue(chunk))
+              .compose(x -> load(vertx, conn, lines, okapiHeaders, loaded + chunk.length));
+        });
+  }
+
+  /**
+   * @return the jsonb of the entries of the next chunk with metadata, empty at the end
+   */
+  private static String [] chunk(Lines lines, Map<String, String> okapiHeaders) throws Exception {
+    List<Config> configs = lines.next();
+    if (configs.isEmpty()) {
+      return new String[0];
+    }
+    MetadataUtil.populateMetadata(configs, okapiHeaders);
+    String [] chunk = new String[configs.size()];
+    for (int i = 0; i < chunk.length; i++) {
+      chunk[i] = PostgresClient.pojo2JsonObject(configs.get(i)).encode();
+    }
+    return chunk;
+  }
+
+  /**
+   * A line that is a JSON object but not a valid configuration entry.
+   */
+  public static class InvalidLineException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    InvalidLineException(int lineNumber, String message) {
+      super("Line " + lineNumber + ": " + message);
+    }
+  }
+
+  /**
+   * Reads the validated lines of a snapshot in chunks, each line with the defaults of
+   * {@link ConfigDefaults} set and without _version.
+   */
+  static class Lines {
+    private final BufferedReader reader;
+    private final int chunkSize;
+    private final Set<UUID> ids = new HashSet<>();
+    private int lineNumber;
+
+    /**
+     * @param inputStream  NDJSON, plain or gzip compressed; null for none
+     */
+    Lines(InputStream inputStream, int chunkSize) throws IOException {
+      this.chunkSize = chunkSize;
+      if (inputStream == null) {
+        this.reader = null;
+        return;
+      }
+      BufferedInputStream in = new BufferedInputStream(inputStream);
+      in.mark(2);
+      boolean gzip = in.read() == GZIP_MAGIC_1 && in.read() == GZIP_MAGIC_2;
+      in.reset();
+      this.reader = new BufferedReader(new InputStreamReader(gzip ? new GZIPInputStream(in) : in,
+          StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the entries of the next up to chunkSize non-blank lines, empty at the end
+     * @throws InvalidLineException  if a line doesn't match kv_configuration.schema, has no UUID id,
+     *     or the id is a duplicate
+     * @throws IllegalArgumentException  if a line isn't a JSON object
+     */
+    List<Config> next() {
+      List<Config> chunk = new ArrayList<>(chunkSize);
+      if (reader == null) {
+        return chunk;
+      }
+      try {
+        String line;
+        while (chunk.size() < chunkSize && (line = reader.readLine()) != null) {
+          lineNumber++;
+          if (! line.isBlank()) {
+            chunk.add(config(line));
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return chunk;
+    }
+
+    private Config config(String line) {
+      try {
+        new JsonObject(line);
+      } catch (DecodeException | ClassCastException e) {
+        throw new IllegalArgumentException("Line " + lineNumber + ": not a JSON object");
+      }
+      Config config;
+      try {
+        config = ObjectMapperTool.getMapper().readValue(line, Config.class);
+      } catch (JsonProcessingException e) {
+        throw new InvalidLineException(lineNumber, e.getOriginalMessage());
+      }
+      UUID id;
+      try {
+        id = UUID.fromString(String.valueOf(config.getId()));
+      } catch (IllegalArgumentException e) {
+        throw new InvalidLineException(lineNumber, "id is not a UUID");
+      }
+      // the first violation by property path so that the message doesn't depend on the validator's order
+      String violation = VALIDATOR.validate(config).stream()
+          .map(v -> v.getPropertyPath() + " " + v.getMessage())
+          .sorted()
+          .findFirst()
+          .orElse(null);
+      if (violation != null) {
+        throw new InvalidLineException(lineNumber, violation);
+      }
+      if (! ids.add(id)) {
+        throw new InvalidLineException(lineNumber, "duplicate id " + id);
+      }
+      ConfigDefaults.defaultToEnabled(config);
+      ConfigDefaults.syncValueJson(config);
+      config.setVersion(null);
+      return config;
+    }
+  }
+}
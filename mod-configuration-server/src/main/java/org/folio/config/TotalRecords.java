@@ -0,0 +1,65 @@
+package org.folio.config;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import java.util.function.Function;
+
+/**
+ * The totalRecords parameter of the collection GETs: exact, estimated or none.
+ */
+public final class TotalRecords {
+
+  public static final String EXACT = "exact";
+  public static final String ESTIMATED = "estimated";
+  public static final String NONE = "none";
+
+  private TotalRecords() {
+    throw new UnsupportedOperationException("Cannot instantiate utility class");
+  }
+
+  /**
+   * Count the records of a query.
+   *
+   * @param mode  exact, estimated, none; null for exact
+   * @param from  the FROM and WHERE clause of the query without parameters
+   * @param execute  function that runs an SQL statement
+   * @return the number of records, null for none
+   */
+  public static Future<Integer> count(String mode, String from, Function<String, Future<RowSet<Row>>> execute) {
+    if (NONE.equals(mode)) {
+      return Future.succeededFuture();
+    }
+    if (ESTIMATED.equals(mode)) {
+      return execute.apply("EXPLAIN (FORMAT JSON) SELECT 1" + from)
+          .map(rowSet -> planRows(rowSet.iterator().next().getValue(0)));
+    }
+    return execute.apply("SELECT count(*)" + from)
+        .map(rowSet -> rowSet.iterator().next().getLong(0).intValue());
+  }
+
+  /**
+   * Count the records like RMB does for a GET without totalRecords: exact for small results, estimated for
+   * large results, using the count_estimate function that RMB creates in the tenant schema.
+   *
+   * @param schema  the tenant schema
+   * @param select  the SELECT statement of the records without LIMIT and OFFSET
+   * @param execute  function that runs an SQL statement
+   */
+  public static Future<Integer> countEstimate(String schema, String select,
+      Function<String, Future<RowSet<Row>>> execute) {
+
+    return execute.apply("SELECT " + schema + ".count_estimate('" + select.replace("'", "''") + "')")
+        .map(rowSet -> (int) Math.min(Integer.MAX_VALUE, rowSet.iterator().next().getLong(0)));
+  }
+
+  /**
+   * @param explain  the result of EXPLAIN (FORMAT JSON)
+   * @return the estimated number of rows of the top plan node
+   */
+  static int planRows(Object explain) {
+    JsonArray plans = explain instanceof JsonArray jsonArray ? jsonArray : new JsonArray(explain.toString());
+    return (int) Math.min(Integer.MAX_VALUE, plans.getJsonObject(0).getJsonObject("Plan").getLong("Plan Rows"));
+  }
+}
@@ -0,0 +1,97 @@
+package org.folio.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.z3950.zing.cql.CQLAndNode;
+import org.z3950.zing.cql.CQLNode;
+import org.z3950.zing.cql.CQLParser;
+import org.z3950.zing.cql.CQLSortNode;
+import org.z3950.zing.cql.CQLTermNode;
+
+/**
+ * A condition for the valueJson GIN index of a CQL query on valueJson sub-fields.
+ *
+ * <p>The CQL to SQL translation of {@code valueJson.a.b==x} uses the expression
+ * {@code jsonb->'valueJson'->'a'->>'b'} that no index can cover for arbitrary sub-fields.
+ * The sub-field value is part of the text of the whole valueJson, therefore each {@code ==} or
+ * {@code =} relation on a valueJson sub-field that is ANDed at the top level of the query is
+ * converted into a LIKE condition on the text of valueJson that selects a superset of the matching
+ * rows and can use the trigram GIN index of schema.json.
+ */
+public final class ValueJsonCondition {
+
+  private static final String PREFIX = "valueJson.";
+  /** Trigram index: shorter strings don't restrict the index scan. */
+  private static final int MIN_LENGTH = 3;
+
+  private final List<String> words = new ArrayList<>();
+
+  private ValueJsonCondition() {
+  }
+
+  /**
+   * @return the SQL condition on the text of valueJson, or null if the query doesn't restrict valueJson sub-fields
+   */
+  public static String sqlCondition(String query) {
+    if (query == null || ! query.contains(PREFIX)) {
+      return null;
+    }
+    ValueJsonCondition condition = new ValueJsonCondition();
+    try {
+      condition.add(new CQLParser().parse(query));
+    } catch (Exception e) {
+      // invalid CQL is reported by the CQL to SQL translation
+      return null;
+    }
+    return condition.toSql();
+  }
+
+  private void add(CQLNode node) {
+    if (node instanceof CQLSortNode sortNode) {
+      add(sortNode.getSubtree());
+    } else if (node instanceof CQLAndNode andNode) {
+      add(andNode.getLeftOperand());
+      add(andNode.getRightOperand());
+    } else if (node instanceof CQLTermNode termNode && termNode.getIndex().startsWith(PREFIX)) {
+      String term = termNode.getTerm();
+      switch (termNode.getRelation().getBase()) {
+        case "==" -> addWord(term);
+        case "=" -> {
+          for (String word : term.trim().split("\\s+")) {
+            addWord(word);
+          }
+        }
+        default -> { }
+      }
+    }
+  }
+
+  private void addWord(String word) {
+    if (word.length() < MIN_LENGTH) {
+      return;
+    }
+    for (int i = 0; i < word.length(); i++) {
+      char c = word.charAt(i);
+      // masking characters, and characters that the JSON text of valueJson escapes
+      if (c == '*' || c == '?' || c == '^' || c == '\\' || c == '"' || c < ' ') {
+        return;
+      }
+    }
+    words.add(word);
+  }
+
+  private String toSql() {
+    if (words.isEmpty()) {
+      return null;
+    }
+    StringBuilder sql = new StringBuilder();
+    for (String word : words) {
+      if (sql.length() > 0) {
+        sql.append(" AND ");
+      }
+      String like = word.replace("%", "\\%").replace("_", "\\_").replace("'", "''");
+      sql.append("lower(f_unaccent(jsonb->>'valueJson')) LIKE lower(f_unaccent('%").append(like).append("%'))");
+    }
+    return sql.toString();
+  }
+}
@@ -0,0 +1,96 @@
+package org.folio.config;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Run request handlers in synchronous style on virtual threads instead of nesting callbacks on the event loop.
+ *
+ * <p>A handler runs on its own virtual thread and waits for the database with {@link #await(Future)},
+ * this blocks the virtual thread only. The response is passed back on the Vert.x context of the request.
+ *
+ * <p>Disabled by default, CONFIG_VIRTUAL_THREADS=true enables it; the event loop handlers stay in place
+ * so that removing the variable reverts to them.
+ */
+public class VirtualThreads {
+
+  /** true runs the handlers on virtual threads. */
+  public static final String VIRTUAL_THREADS = "CONFIG_VIRTUAL_THREADS";
+
+  private static final Executor EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+  private static volatile VirtualThreads instance = fromEnv();
+
+  private final boolean enabled;
+  private final Executor executor;
+
+  VirtualThreads(boolean enabled, Executor executor) {
+    this.enabled = enabled;
+    this.executor = executor;
+  }
+
+  public static VirtualThreads getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replace the instance by a new one with the current CONFIG_VIRTUAL_THREADS, for tests.
+   */
+  public static void reload() {
+    instance = fromEnv();
+  }
+
+  private static VirtualThreads fromEnv() {
+    return new VirtualThreads(Env.getBoolean(VIRTUAL_THREADS, false), EXECUTOR);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Run the request on a virtual thread and pass its result to the handler on the context.
+   *
+   * @param request  the blocking request, an exception fails the result
+   */
+  public <T> void run(Context context, Callable<T> request, Handler<AsyncResult<T>> handler) {
+    executor.execute(() -> {
+      Future<T> result;
+      try {
+        result = Future.succeededFuture(request.call());
+      } catch (Exception e) {
+        result = Future.failedFuture(e);
+      }
+      Future<T> reply = result;
+      context.runOnContext(x -> handler.handle(reply));
+    });
+  }
+
+  /**
+   * Wait for the future, must not be called on a Vert.x thread.
+   *
+   * @return the result of the future
+   * @throws Exception the cause of the failure
+   */
+  public static <T> T await(Future<T> future) throws Exception {
+    if (Context.isOnVertxThread()) {
+      throw new IllegalStateException("await blocks, it must not be called on a Vert.x thread");
+    }
+    try {
+      return future.toCompletionStage().toCompletableFuture().get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception cause) {
+        throw cause;
+      }
+      throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw e;
+    }
+  }
+}
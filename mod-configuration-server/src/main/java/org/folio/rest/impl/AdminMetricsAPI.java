@@ -0,0 +1,35 @@
+package org.folio.rest.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+import java.util.Map;
+import javax.ws.rs.core.Response;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.config.ConfigMetrics;
+import org.folio.rest.jaxrs.resource.AdminMetrics;
+import org.folio.rest.tools.messages.MessageConsts;
+import org.folio.rest.tools.messages.Messages;
+
+public class AdminMetricsAPI implements AdminMetrics {
+
+  private static final Logger log = LogManager.getLogger(AdminMetricsAPI.class);
+
+  @Override
+  public void getAdminMetrics(Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    try {
+      asyncResultHandler.handle(Future.succeededFuture(
+          GetAdminMetricsResponse.respond200WithTextPlain(ConfigMetrics.scrape())));
+    } catch (Exception e) {
+      log.error(e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(GetAdminMetricsResponse.respond500WithTextPlain(
+          Messages.getInstance().getMessage(null, MessageConsts.InternalServerError))));
+    }
+  }
+}
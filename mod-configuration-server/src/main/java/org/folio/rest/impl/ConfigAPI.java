@@ -4,28 +4,73 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.ws.rs.Path;
 import javax.ws.rs.core.Response;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.config.AdmissionControl;
+import org.folio.config.AuditDateRange;
+import org.folio.config.AuditQuery;
+import org.folio.config.BatchUpsert;
+import org.folio.config.ChangeFeed;
+import org.folio.config.ChangeNotifier;
+import org.folio.config.CollectionStream;
+import org.folio.config.Compression;
+import org.folio.config.ConfigCache;
+import org.folio.config.ConfigDefaults;
+import org.folio.config.ConfigErrors;
+import org.folio.config.ConfigMetrics;
+import org.folio.config.ConfigQuery;
+import org.folio.config.ETags;
+import org.folio.config.FacetCounts;
+import org.folio.config.KeyLookup;
+import org.folio.config.KeysetPage;
+import org.folio.config.PointLookup;
+import org.folio.config.ProjectedQuery;
+import org.folio.config.Projection;
+import org.folio.config.Queryable;
+import org.folio.config.ReadRouting;
+import org.folio.config.SingleFlight;
+import org.folio.config.Snapshot;
+import org.folio.config.TotalRecords;
+import org.folio.config.ValueJsonCondition;
+import org.folio.config.VirtualThreads;
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.dbschema.ObjectMapperTool;
 import org.folio.rest.RestVerticle;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.jaxrs.model.Audit;
 import org.folio.rest.jaxrs.model.Audits;
+import org.folio.rest.jaxrs.model.CacheStats;
 import org.folio.rest.jaxrs.model.Config;
-import org.folio.rest.jaxrs.model.Error;
-import org.folio.rest.jaxrs.model.Errors;
+import org.folio.rest.jaxrs.model.ConfigBatch;
+import org.folio.rest.jaxrs.model.ConfigLookup;
+import org.folio.rest.jaxrs.model.ConfigLookupKey;
+import org.folio.rest.jaxrs.model.ConfigSnapshotResult;
+import org.folio.rest.jaxrs.model.Configs;
+import org.folio.rest.jaxrs.model.Facet;
+import org.folio.rest.jaxrs.model.ResultInfo;
 import org.folio.rest.jaxrs.resource.Configurations;
+import org.folio.rest.persist.Criteria.Limit;
+import org.folio.rest.persist.Criteria.Offset;
 import org.folio.rest.persist.PgExceptionUtil;
 import org.folio.rest.persist.PgUtil;
 import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.cql.CQLWrapper;
 import org.folio.rest.tools.messages.MessageConsts;
 import org.folio.rest.tools.messages.Messages;
+import org.folio.rest.tools.utils.MetadataUtil;
 import org.folio.rest.tools.utils.TenantTool;
 
 @Path("configurations")
@@ -37,17 +82,255 @@ public class ConfigAPI implements Configurations {
   private static final Logger log               = LogManager.getLogger(ConfigAPI.class);
 
   private static final String       LOCATION_PREFIX   = "/configurations/entries/";
+  private static final String       RETRY_AFTER       = "Retry-After";
+  private static final String       TOO_MANY_REQUESTS = "Too many requests";
 
   private final Messages            messages          = Messages.getInstance();
 
   @Validate
   @Override
   public void getConfigurationsEntries(
-      String query, int offset, int limit, List<String> facets,
-      String lang, RoutingContext routingContext, Map<String, String>okapiHeaders,
+      String query, int offset, int limit, List<String> facets, String cursor, String fields,
+      String totalRecords, String lang, RoutingContext routingContext, Map<String, String>okapiHeaders,
       Handler<AsyncResult<Response>> asyncResultHandler, Context context) {
 
-    PgUtil.streamGet(CONFIG_TABLE, Config.class, query, offset, limit, facets, "configs", routingContext, okapiHeaders, context);
+    if (! admit("get_entries", okapiHeaders, routingContext)) {
+      return;
+    }
+    String tenantId = tenantId(okapiHeaders);
+    String ifNoneMatch = routingContext.request().getHeader(ETags.IF_NONE_MATCH);
+    // version and data must come from the same database, the replica may lag behind the primary
+    Queryable queryable = reader(context, tenantId);
+    if (ifNoneMatch == null) {
+      // the version is looked up only if needed to store the response in the cache
+      getEntries(query, offset, limit, facets, cursor, fields, totalRecords, null, queryable, routingContext,
+          okapiHeaders, context);
+      return;
+    }
+    // take the version before reading the data, a concurrent write then only causes an unneeded refresh
+    ETags.ofCollection(queryable, tenantId)
+    .onFailure(e -> {
+      log.warn(e.getMessage(), e);
+      getEntries(query, offset, limit, facets, cursor, fields, totalRecords, null, queryable, routingContext,
+          okapiHeaders, context);
+    })
+    .onSuccess(etag -> {
+      if (ETags.matches(ifNoneMatch, etag)) {
+        routingContext.response().setStatusCode(304).putHeader(ETags.ETAG, etag).end();
+        return;
+      }
+      putETag(routingContext, etag);
+      getEntries(query, offset, limit, facets, cursor, fields, totalRecords, etag, queryable, routingContext,
+          okapiHeaders, context);
+    });
+  }
+
+  /**
+   * Send the ETag header with a 200 response.
+   *
+   * @param etag  the ETag, null for none
+   */
+  private static void putETag(RoutingContext routingContext, String etag) {
+    if (etag == null) {
+      return;
+    }
+    HttpServerResponse response = routingContext.response();
+    response.putHeader(ETags.ETAG, etag);
+    response.headersEndHandler(x -> {
+      if (response.getStatusCode() != 200) {
+        response.headers().remove(ETags.ETAG);
+      }
+    });
+  }
+
+  /**
+   * @param etag  the collection ETag of the request with If-None-Match, null if the request has none or the
+   *     lookup failed; a cached response is sent for it only if it was read under that ETag
+   */
+  private void getEntries(String query, int offset, int limit, List<String> facets, String cursor, String fields,
+      String totalRecords, String etag, Queryable queryable, RoutingContext routingContext,
+      Map<String, String> okapiHeaders, Context context) {
+
+    String tenantId = tenantId(okapiHeaders);
+    Projection projection;
+    try {
+      projection = Projection.of(fields, Config.class);
+    } catch (IllegalArgumentException e) {
+      respondText(routingContext, 400, e.getMessage());
+      return;
+    }
+    if (projection != null && facets != null && ! facets.isEmpty()) {
+      respondText(routingContext, 400, "fields cannot be combined with facets");
+      return;
+    }
+    if (cursor != null) {
+      getEntriesPage(query, offset, limit, facets, cursor, projection, queryable, routingContext, okapiHeaders);
+      return;
+    }
+    if (projection != null) {
+      getProjectedEntries(query, offset, limit, projection, totalRecords, queryable, routingContext, okapiHeaders);
+      return;
+    }
+    ConfigCache cache = ConfigCache.getInstance();
+    PointLookup pointLookup = PointLookup.parse(query);
+    String valueJsonCondition = ValueJsonCondition.sqlCondition(query);
+    boolean hasFacets = facets != null && ! facets.isEmpty();
+    FacetCounts facetCounts = FacetCounts.parse(query, facets);
+    if (facetCounts != null) {
+      getFacetCountEntries(query, offset, limit, facets, facetCounts, queryable, routingContext, okapiHeaders, context);
+      return;
+    }
+    if (totalRecords != null && ! hasFacets && pointLookup == null) {
+      // PgUtil.streamGet and the cache ignore totalRecords, the fast path always counts exactly
+      streamEntries(new CollectionStream(tenantId, CONFIG_TABLE, query)
+          .withCondition(valueJsonCondition)
+          .withTotalRecords(totalRecords),
+          offset, limit, queryable, routingContext);
+      return;
+    }
+    SingleFlight singleFlight = SingleFlight.getInstance();
+    if (hasFacets || (pointLookup == null && valueJsonCondition == null && ! cache.isEnabled()
+        && ! singleFlight.isEnabled())) {
+      // PgUtil.streamGet cannot compress and always uses the primary, facets are left to it
+      if (! hasFacets && (acceptsGzip(routingContext) || queryable.isReplica())) {
+        streamEntries(new CollectionStream(tenantId, CONFIG_TABLE, query), offset, limit,
+            queryable, routingContext);
+        return;
+      }
+      PgUtil.streamGet(CONFIG_TABLE, Config.class, query, offset, limit, facets, "configs", routingContext, okapiHeaders, context);
+      return;
+    }
+    String key = ConfigCache.key(query, offset, limit);
+    if (cache.isEnabled()) {
+      ConfigCache.Cached cached = cache.getCached(tenantId, key);
+      // a response cached under an older version is stale, the write went through another module instance
+      if (cached != null && (etag == null || etag.equals(cached.getETag()))) {
+        if (etag == null) {
+          putETag(routingContext, cached.getETag());
+        }
+        respondJson(routingContext, cached.getBody());
+        return;
+      }
+    }
+    long generation = cache.generation(tenantId);
+    Future<String> version = Future.succeededFuture(etag);
+    if (etag == null && cache.isEnabled()) {
+      // store the response with its version so that a later If-None-Match request can use it
+      version = ETags.ofCollection(queryable, tenantId)
+          .onSuccess(v -> putETag(routingContext, v))
+          .recover(e -> {
+            log.warn(e.getMessage(), e);
+            return Future.succeededFuture();
+          });
+    }
+    version.onSuccess(v ->
+      // identical concurrent requests share one query, a request after a write doesn't join an older query
+      singleFlight.run(tenantId, generation + " " + v + " " + queryable.isReplica() + " " + key,
+          () -> pointLookup != null
+          ? pointLookup.get(queryable, tenantId, CONFIG_TABLE, offset, limit)
+          : getConfigs(tenantId, query, valueJsonCondition, offset, limit, queryable, context))
+      .onSuccess(json -> {
+        cache.put(tenantId, generation, key, v, json);
+        respondJson(routingContext, json);
+      })
+      .onFailure(e -> {
+        // let streamGet report invalid CQL or other failures the usual way
+        log.debug(e.getMessage(), e);
+        PgUtil.streamGet(CONFIG_TABLE, Config.class, query, offset, limit, facets, "configs", routingContext,
+            okapiHeaders, context);
+      }));
+  }
+
+  /**
+   * Records from the query, module and code facets and totalRecords from the precomputed counts.
+   */
+  private void getFacetCountEntries(String query, int offset, int limit, List<String> facets,
+      FacetCounts facetCounts, Queryable queryable, RoutingContext routingContext,
+      Map<String, String> okapiHeaders, Context context) {
+
+    String tenantId = tenantId(okapiHeaders);
+    Future<Configs> configs = new ConfigQuery(tenantId, CONFIG_TABLE, query, null)
+        .withTotalRecords(TotalRecords.NONE)
+        .get(queryable, offset, limit);
+    Future<Integer> totalRecords = facetCounts.totalRecords(queryable, tenantId);
+    Future<List<Facet>> facetList = facetCounts.facets(queryable, tenantId);
+    Future.all(configs, totalRecords, facetList)
+    .map(x -> {
+      try {
+        return PostgresClient.pojo2JsonObject(configs.result()
+            .withTotalRecords(totalRecords.result())
+            .withResultInfo(new ResultInfo().withTotalRecords(totalRecords.result()).withFacets(facetList.result())))
+            .encode();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    })
+    .onSuccess(json -> respondJson(routingContext, json))
+    .onFailure(e -> {
+      // let streamGet aggregate the facets
+      log.warn(e.getMessage(), e);
+      PgUtil.streamGet(CONFIG_TABLE, Config.class, query, offset, limit, facets, "configs", routingContext, okapiHeaders, context);
+    });
+  }
+
+  private void getProjectedEntries(String query, int offset, int limit, Projection projection, String totalRecords,
+      Queryable queryable, RoutingContext routingContext, Map<String, String> okapiHeaders) {
+
+    streamEntries(new CollectionStream(tenantId(okapiHeaders), CONFIG_TABLE, query)
+        .withCondition(ValueJsonCondition.sqlCondition(query))
+        .withProjection(projection)
+        .withTotalRecords(totalRecords),
+        offset, limit, queryable, routingContext);
+  }
+
+  private void streamEntries(CollectionStream collectionStream, int offset, int limit,
+      Queryable queryable, RoutingContext routingContext) {
+
+    HttpServerResponse response = routingContext.response();
+    response.putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+    Compression.Writer writer = new Compression.Writer(response, acceptsGzip(routingContext));
+    try {
+      collectionStream.write(queryable, "configs", offset, limit, response, writer)
+      .onFailure(e -> {
+        log.error(e.getMessage(), e);
+        if (writer.hasWritten()) {
+          // the status has been sent, a truncated response is the only way to report the failure
+          routingContext.request().connection().close();
+          return;
+        }
+        response.headers().remove(HttpHeaders.CONTENT_ENCODING);
+        respondText(routingContext, isBadRequest(e) ? 400 : 500,
+            isBadRequest(e) ? e.getMessage() : messages.getMessage(null, MessageConsts.InternalServerError));
+      });
+    } catch (IllegalArgumentException e) {
+      response.headers().remove(HttpHeaders.CONTENT_ENCODING);
+      respondText(routingContext, 400, e.getMessage());
+    }
+  }
+
+  private void getEntriesPage(String query, int offset, int limit, List<String> facets, String cursor,
+      Projection projection, Queryable queryable, RoutingContext routingContext, Map<String, String> okapiHeaders) {
+
+    String error = cursorError(offset, facets);
+    if (error != null) {
+      respondText(routingContext, 400, error);
+      return;
+    }
+    String tenantId = tenantId(okapiHeaders);
+    try {
+      new KeysetPage(tenantId, CONFIG_TABLE, query, cursor, limit)
+      .withCondition(ValueJsonCondition.sqlCondition(query))
+      .withProjection(projection)
+      .get(queryable)
+      .onSuccess(page -> respondJson(routingContext, page.encode("configs")))
+      .onFailure(e -> {
+        log.error(e.getMessage(), e);
+        respondText(routingContext, isBadRequest(e) ? 400 : 500,
+            isBadRequest(e) ? e.getMessage() : messages.getMessage(null, MessageConsts.InternalServerError));
+      });
+    } catch (IllegalArgumentException e) {
+      respondText(routingContext, 400, e.getMessage());
+    }
   }
 
   @Validate
@@ -55,38 +338,42 @@ public class ConfigAPI implements Configurations {
   public void postConfigurationsEntries(String lang, Config entity, RoutingContext routingContext,
                                         Map<String, String>okapiHeaders,
                                         Handler<AsyncResult<Response>> asyncResultHandler, Context context) {
+
+    admit("post_entry", okapiHeaders, asyncResultHandler, handler -> {
+      if (VirtualThreads.getInstance().isEnabled()) {
+        VirtualThreads.getInstance().run(context, () -> postEntry(lang, entity, okapiHeaders, context), handler);
+      } else {
+        postEntry(lang, entity, okapiHeaders, handler, context);
+      }
+    });
+  }
+
+  /**
+   * {@link #postEntry(String, Config, Map, Handler, Context)} for a virtual thread.
+   */
+  private Response postEntry(String lang, Config entity, Map<String, String> okapiHeaders, Context context) {
+    setDefaults(entity);
+    String tenantId = tenantId(okapiHeaders);
+    AsyncResult<String> reply;
+    try {
+      reply = Future.succeededFuture(VirtualThreads.await(
+          PostgresClient.getInstance(context.owner(), tenantId).save(CONFIG_TABLE, entity.getId(), entity)));
+    } catch (Exception e) {
+      reply = Future.failedFuture(e);
+    }
+    return postEntryResponse(lang, entity, tenantId, reply);
+  }
+
+  private void postEntry(String lang, Config entity, Map<String, String> okapiHeaders,
+                         Handler<AsyncResult<Response>> asyncResultHandler, Context context) {
     // cannot use PgUtil.post because Location is not returned RMB-513
-    defaultToEnabled(entity);
+    setDefaults(entity);
     try {
       log.debug("sending... postConfigurationsTables");
       String tenantId = TenantTool.calculateTenantId( okapiHeaders.get(RestVerticle.OKAPI_HEADER_TENANT) );
       PostgresClient.getInstance(context.owner(), tenantId).save(
-        CONFIG_TABLE, entity.getId(), entity, reply -> {
-          try {
-            if (reply.succeeded()){
-              String ret = reply.result();
-              entity.setId(ret);
-              asyncResultHandler.handle(Future.succeededFuture(
-                PostConfigurationsEntriesResponse.respond201WithApplicationJson(entity,
-                  PostConfigurationsEntriesResponse.headersFor201().withLocation(LOCATION_PREFIX + ret))));
-            } else {
-              log.error(reply.cause().getMessage(), reply.cause());
-              if (isNotUniqueModuleConfigAndCode(reply)) {
-                asyncResultHandler.handle(Future.succeededFuture(
-                  PostConfigurationsEntriesResponse
-                    .respond422WithApplicationJson(uniqueModuleConfigAndCodeError(entity))));
-              } else {
-                asyncResultHandler.handle(Future.succeededFuture(
-                  PostConfigurationsEntriesResponse.respond500WithTextPlain(
-                    messages.getMessage(lang, MessageConsts.InternalServerError))));
-              }
-            }
-          } catch (Exception e) {
-            log.error(e.getMessage(), e);
-            asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsEntriesResponse
-              .respond500WithTextPlain(messages.getMessage(lang, MessageConsts.InternalServerError))));
-          }
-        });
+        CONFIG_TABLE, entity.getId(), entity, reply ->
+          asyncResultHandler.handle(Future.succeededFuture(postEntryResponse(lang, entity, tenantId, reply))));
     } catch (Exception e) {
       log.error(e.getMessage(), e);
       asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsEntriesResponse
@@ -94,13 +381,201 @@ public class ConfigAPI implements Configurations {
     }
   }
 
+  /**
+   * The response of POST /configurations/entries for the result of saving the entity, used by the event loop
+   * and the virtual thread handler.
+   *
+   * @param reply  the id of the saved entity, or the failure
+   */
+  private Response postEntryResponse(String lang, Config entity, String tenantId, AsyncResult<String> reply) {
+    try {
+      if (reply.succeeded()) {
+        ConfigCache.getInstance().invalidate(tenantId);
+        ReadRouting.getInstance().written(tenantId);
+        String id = reply.result();
+        entity.setId(id);
+        return PostConfigurationsEntriesResponse.respond201WithApplicationJson(entity,
+            PostConfigurationsEntriesResponse.headersFor201().withLocation(LOCATION_PREFIX + id));
+      }
+      log.error(reply.cause().getMessage(), reply.cause());
+      if (ConfigErrors.isNotUniqueModuleConfigAndCode(reply.cause())) {
+        ConfigMetrics.uniqueViolation(tenantId);
+        return PostConfigurationsEntriesResponse.respond422WithApplicationJson(
+            ConfigErrors.uniqueModuleConfigAndCodeError(entity));
+      }
+    } catch (Exception e) {
+      log.error(e.getMessage(), e);
+    }
+    return PostConfigurationsEntriesResponse.respond500WithTextPlain(
+        messages.getMessage(lang, MessageConsts.InternalServerError));
+  }
+
   @Validate
   @Override
-  public void getConfigurationsEntriesByEntryId(String entryId, String lang, Map<String, String>okapiHeaders,
+  public void postConfigurationsEntriesBatch(ConfigBatch entity, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    admit("post_batch", okapiHeaders, asyncResultHandler,
+        handler -> postBatch(entity, okapiHeaders, handler, vertxContext));
+  }
+
+  private void postBatch(ConfigBatch entity, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    List<Config> configs = entity.getConfigs();
+    int maxSize = BatchUpsert.maxSize();
+    if (configs.size() > maxSize) {
+      asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsEntriesBatchResponse
+          .respond400WithTextPlain("Batch has " + configs.size() + " entries, maximum is " + maxSize)));
+      return;
+    }
+    try {
+      configs.forEach(this::setDefaults);
+      MetadataUtil.populateMetadata(configs, okapiHeaders);
+      String tenantId = tenantId(okapiHeaders);
+      new BatchUpsert(tenantId, CONFIG_TABLE, configs)
+      .run(PostgresClient.getInstance(vertxContext.owner(), tenantId))
+      .onComplete(reply -> {
+        ConfigCache.getInstance().invalidate(tenantId);
+        ReadRouting.getInstance().written(tenantId);
+        if (reply.succeeded()) {
+          reply.result().getResults().stream()
+              .filter(result -> Integer.valueOf(422).equals(result.getStatus()))
+              .forEach(result -> ConfigMetrics.uniqueViolation(tenantId));
+          asyncResultHandler.handle(Future.succeededFuture(
+              PostConfigurationsEntriesBatchResponse.respond200WithApplicationJson(reply.result())));
+          return;
+        }
+        log.error(reply.cause().getMessage(), reply.cause());
+        asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsEntriesBatchResponse
+            .respond500WithTextPlain(messages.getMessage(null, MessageConsts.InternalServerError))));
+      });
+    } catch (Exception e) {
+      log.error(e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsEntriesBatchResponse
+          .respond500WithTextPlain(messages.getMessage(null, MessageConsts.InternalServerError))));
+    }
+  }
+
+  @Validate
+  @Override
+  public void postConfigurationsEntriesLookup(ConfigLookup entity, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    admit("lookup", okapiHeaders, asyncResultHandler,
+        handler -> lookup(entity, okapiHeaders, handler, vertxContext));
+  }
+
+  private void lookup(ConfigLookup entity, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    int maxSize = KeyLookup.maxSize();
+    if (entity.getKeys().size() > maxSize) {
+      asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsEntriesLookupResponse
+          .respond400WithTextPlain("Lookup has " + entity.getKeys().size() + " keys, maximum is " + maxSize)));
+      return;
+    }
+    try {
+      String tenantId = tenantId(okapiHeaders);
+      new KeyLookup(tenantId, CONFIG_TABLE, entity.getKeys())
+      .run(PostgresClient.getInstance(vertxContext.owner(), tenantId))
+      .onComplete(reply -> {
+        if (reply.succeeded()) {
+          asyncResultHandler.handle(Future.succeededFuture(
+              PostConfigurationsEntriesLookupResponse.respond200WithApplicationJson(reply.result())));
+          return;
+        }
+        log.error(reply.cause().getMessage(), reply.cause());
+        asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsEntriesLookupResponse
+            .respond500WithTextPlain(messages.getMessage(null, MessageConsts.InternalServerError))));
+      });
+    } catch (Exception e) {
+      log.error(e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsEntriesLookupResponse
+          .respond500WithTextPlain(messages.getMessage(null, MessageConsts.InternalServerError))));
+    }
+  }
+
+  @Validate
+  @Override
+  public void getConfigurationsEntriesByEntryId(String entryId, String lang, String ifNoneMatch,
+                                                Map<String, String>okapiHeaders,
                                                 Handler<AsyncResult<Response>> asyncResultHandler, Context context) {
 
+    admit("get_entry", okapiHeaders, asyncResultHandler, handler -> {
+      if (VirtualThreads.getInstance().isEnabled()) {
+        VirtualThreads.getInstance().run(context, () -> getEntry(entryId, lang, ifNoneMatch, okapiHeaders, context),
+            handler);
+      } else {
+        getEntry(entryId, lang, ifNoneMatch, okapiHeaders, handler, context);
+      }
+    });
+  }
+
+  /**
+   * {@link #getEntry(String, String, String, Map, Handler, Context)} for a virtual thread.
+   */
+  private Response getEntry(String entryId, String lang, String ifNoneMatch, Map<String, String> okapiHeaders,
+      Context context) {
+
+    String tenantId = tenantId(okapiHeaders);
+    AsyncResult<Config> reply;
+    try {
+      reply = Future.succeededFuture(VirtualThreads.await(
+          ConfigQuery.getById(reader(context, tenantId), tenantId, CONFIG_TABLE, entryId)));
+    } catch (Exception e) {
+      reply = Future.failedFuture(e);
+    }
+    return getEntryResponse(lang, ifNoneMatch, reply);
+  }
+
+  private void getEntry(String entryId, String lang, String ifNoneMatch, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> handler, Context context) {
+
+    String tenantId = tenantId(okapiHeaders);
+    Queryable queryable = reader(context, tenantId);
+    if (queryable.isReplica()) {
+      ConfigQuery.getById(queryable, tenantId, CONFIG_TABLE, entryId)
+      .onComplete(reply -> handler.handle(Future.succeededFuture(getEntryResponse(lang, ifNoneMatch, reply))));
+      return;
+    }
     PgUtil.getById(CONFIG_TABLE, Config.class, entryId, okapiHeaders, context,
-        GetConfigurationsEntriesByEntryIdResponse.class, asyncResultHandler);
+        GetConfigurationsEntriesByEntryIdResponse.class, reply -> {
+          if (reply.failed() || reply.result().getStatus() != 200) {
+            handler.handle(reply);
+            return;
+          }
+          handler.handle(Future.succeededFuture(entryResponse((Config) reply.result().getEntity(), ifNoneMatch)));
+        });
+  }
+
+  /**
+   * The response of GET /configurations/entries/{entryId} for the result of {@link ConfigQuery#getById},
+   * used by the event loop and the virtual thread handler.
+   */
+  private Response getEntryResponse(String lang, String ifNoneMatch, AsyncResult<Config> reply) {
+    if (reply.failed()) {
+      log.error(reply.cause().getMessage(), reply.cause());
+      return GetConfigurationsEntriesByEntryIdResponse.respond500WithTextPlain(
+          messages.getMessage(lang, MessageConsts.InternalServerError));
+    }
+    if (reply.result() == null) {
+      return GetConfigurationsEntriesByEntryIdResponse.respond404WithTextPlain("Not found");
+    }
+    return entryResponse(reply.result(), ifNoneMatch);
+  }
+
+  private static Response entryResponse(Config config, String ifNoneMatch) {
+    String etag = ETags.of(config);
+    if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+      return Response.status(304).header(ETags.ETAG, etag).build();
+    }
+    Response.ResponseBuilder response = Response.status(200)
+        .header(HttpHeaders.CONTENT_TYPE.toString(), "application/json").entity(config);
+    if (etag != null) {
+      response.header(ETags.ETAG, etag);
+    }
+    return response.build();
   }
 
   @Validate
@@ -108,8 +583,9 @@ public class ConfigAPI implements Configurations {
   public void deleteConfigurationsEntriesByEntryId(String entryId, String lang, Map<String, String>okapiHeaders,
                                                    Handler<AsyncResult<Response>> asyncResultHandler, Context context) {
 
-    PgUtil.deleteById(CONFIG_TABLE, entryId, okapiHeaders, context,
-        DeleteConfigurationsEntriesByEntryIdResponse.class, asyncResultHandler);
+    admit("delete_entry", okapiHeaders, asyncResultHandler,
+        handler -> PgUtil.deleteById(CONFIG_TABLE, entryId, okapiHeaders, context,
+            DeleteConfigurationsEntriesByEntryIdResponse.class, invalidateCache(okapiHeaders, handler)));
   }
 
   @Validate
@@ -118,58 +594,488 @@ public class ConfigAPI implements Configurations {
       String entryId, String lang, Config entity, Map<String, String> okapiHeaders,
       Handler<AsyncResult<Response>> asyncResultHandler, Context context) {
 
-    defaultToEnabled(entity);
-    PgUtil.put(CONFIG_TABLE, entity, entryId, okapiHeaders, context, PutConfigurationsEntriesByEntryIdResponse.class,
-        asyncResultHandler);
+    setDefaults(entity);
+    admit("put_entry", okapiHeaders, asyncResultHandler,
+        handler -> PgUtil.put(CONFIG_TABLE, entity, entryId, okapiHeaders, context,
+            PutConfigurationsEntriesByEntryIdResponse.class, invalidateCache(okapiHeaders, handler)));
   }
 
   @Validate
   @Override
   public void getConfigurationsAudit(String query, int offset,
-      int limit, String lang, Map<String, String> okapiHeaders,
+      int limit, String cursor, String fields, String totalRecords, String lang, Map<String, String> okapiHeaders,
       Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
 
+    admit("get_audit", okapiHeaders, asyncResultHandler,
+        handler -> getAudit(query, offset, limit, cursor, fields, totalRecords, okapiHeaders, handler, vertxContext));
+  }
+
+  private void getAudit(String query, int offset, int limit, String cursor, String fields, String totalRecords,
+      Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    Projection projection;
+    try {
+      projection = Projection.of(fields, Audit.class);
+    } catch (IllegalArgumentException e) {
+      asyncResultHandler.handle(Future.succeededFuture(
+          GetConfigurationsAuditResponse.respond400WithTextPlain(e.getMessage())));
+      return;
+    }
+    if (cursor != null) {
+      getAuditPage(query, offset, cursor, limit, projection, okapiHeaders, asyncResultHandler,
+          reader(vertxContext, tenantId(okapiHeaders)));
+      return;
+    }
+    String tenantId = tenantId(okapiHeaders);
+    Queryable queryable = reader(vertxContext, tenantId);
+    String dateCondition = AuditDateRange.sqlCondition(query);
+    if (projection != null) {
+      new ProjectedQuery(tenantId, AUDIT_TABLE, query, projection)
+      .withCondition(dateCondition)
+      .withTotalRecords(totalRecords)
+      .get(queryable, "audits", offset, limit)
+      .onComplete(reply -> handleProjectedAudits(reply, asyncResultHandler));
+      return;
+    }
+    // PgUtil.get always uses the primary and ignores totalRecords
+    if (dateCondition != null || queryable.isReplica() || totalRecords != null) {
+      new AuditQuery(tenantId, AUDIT_TABLE, query, dateCondition)
+      .withTotalRecords(totalRecords)
+      .get(queryable, offset, limit)
+      .onComplete(reply -> handleAudits(reply, asyncResultHandler));
+      return;
+    }
     PgUtil.get(AUDIT_TABLE, Audit.class, Audits.class, query, offset, limit, okapiHeaders, vertxContext,
         GetConfigurationsAuditResponse.class, asyncResultHandler);
   }
 
-  private <T> boolean isNotUniqueModuleConfigAndCode(AsyncResult<T> reply) {
-    if (reply == null) {
-      return false;
+  private void getAuditPage(String query, int offset, String cursor, int limit, Projection projection,
+      Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Queryable queryable) {
+
+    String error = cursorError(offset, null);
+    if (error != null) {
+      asyncResultHandler.handle(Future.succeededFuture(GetConfigurationsAuditResponse.respond400WithTextPlain(error)));
+      return;
     }
+    String tenantId = tenantId(okapiHeaders);
+    try {
+      KeysetPage keysetPage = new KeysetPage(tenantId, AUDIT_TABLE, query, cursor, limit)
+          .withCondition(AuditDateRange.sqlCondition(query))
+          .withProjection(projection);
+      if (projection != null) {
+        keysetPage.get(queryable)
+        .map(page -> page.encode("audits"))
+        .onComplete(reply -> handleProjectedAudits(reply, asyncResultHandler));
+        return;
+      }
+      keysetPage.get(queryable)
+      .map(page -> {
+        List<Audit> audits = new ArrayList<>();
+        for (JsonObject jsonObject : page.getRecords()) {
+          try {
+            audits.add(ObjectMapperTool.readValue(jsonObject.encode(), Audit.class));
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        }
+        return new Audits().withAudits(audits).withNextCursor(page.getNextCursor());
+      })
+      .onComplete(reply -> handleAudits(reply, asyncResultHandler));
+    } catch (IllegalArgumentException e) {
+      asyncResultHandler.handle(Future.succeededFuture(
+          GetConfigurationsAuditResponse.respond400WithTextPlain(e.getMessage())));
+    }
+  }
 
-    final String message = PgExceptionUtil.badRequestMessage(reply.cause());
+  private void handleAudits(AsyncResult<Audits> reply, Handler<AsyncResult<Response>> asyncResultHandler) {
+    if (reply.succeeded()) {
+      asyncResultHandler.handle(Future.succeededFuture(
+          GetConfigurationsAuditResponse.respond200WithApplicationJson(reply.result())));
+      return;
+    }
+    log.error(reply.cause().getMessage(), reply.cause());
+    asyncResultHandler.handle(Future.succeededFuture(isBadRequest(reply.cause())
+        ? GetConfigurationsAuditResponse.respond400WithTextPlain(reply.cause().getMessage())
+        : GetConfigurationsAuditResponse.respond500WithTextPlain(
+            messages.getMessage(null, MessageConsts.InternalServerError))));
+  }
 
-    if (message == null) {
-      return false;
+  /**
+   * Projected audit records are not valid Audit objects, they are returned as JSON string.
+   */
+  private void handleProjectedAudits(AsyncResult<String> reply, Handler<AsyncResult<Response>> asyncResultHandler) {
+    if (reply.succeeded()) {
+      asyncResultHandler.handle(Future.succeededFuture(Response.status(200)
+          .header(HttpHeaders.CONTENT_TYPE.toString(), "application/json").entity(reply.result()).build()));
+      return;
+    }
+    log.error(reply.cause().getMessage(), reply.cause());
+    asyncResultHandler.handle(Future.succeededFuture(isBadRequest(reply.cause())
+        ? GetConfigurationsAuditResponse.respond400WithTextPlain(reply.cause().getMessage())
+        : GetConfigurationsAuditResponse.respond500WithTextPlain(
+            messages.getMessage(null, MessageConsts.InternalServerError))));
+  }
+
+  @Validate
+  @Override
+  public void getConfigurationsEffective(String module, String configName, String code, String userId,
+      String ifNoneMatch, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    ConfigLookupKey key =
+        new ConfigLookupKey().withModule(module).withConfigName(configName).withCode(code).withUserId(userId);
+    admit("get_effective", okapiHeaders, asyncResultHandler,
+        handler -> getEffective(key, ifNoneMatch, okapiHeaders, handler, vertxContext));
+  }
+
+  private void getEffective(ConfigLookupKey key, String ifNoneMatch, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    String tenantId = tenantId(okapiHeaders);
+    ConfigCache cache = ConfigCache.getInstance();
+    String cacheKey = ConfigCache.effectiveKey(key.getModule(), key.getConfigName(), key.getCode(), key.getUserId());
+    try {
+      String body = cache.isEnabled() ? cache.get(tenantId, cacheKey) : null;
+      if (body != null) {
+        asyncResultHandler.handle(Future.succeededFuture(
+            effectiveResponse(ObjectMapperTool.readValue(body, Config.class), ifNoneMatch)));
+        return;
+      }
+      long generation = cache.generation(tenantId);
+      KeyLookup.effective(PostgresClient.getInstance(vertxContext.owner(), tenantId), tenantId, CONFIG_TABLE, key)
+      .map(config -> {
+        if (config != null) {
+          try {
+            cache.put(tenantId, generation, cacheKey, PostgresClient.pojo2JsonObject(config).encode());
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        }
+        return effectiveResponse(config, ifNoneMatch);
+      })
+      .onComplete(reply -> {
+        if (reply.succeeded()) {
+          asyncResultHandler.handle(reply);
+          return;
+        }
+        log.error(reply.cause().getMessage(), reply.cause());
+        asyncResultHandler.handle(Future.succeededFuture(GetConfigurationsEffectiveResponse
+            .respond500WithTextPlain(messages.getMessage(null, MessageConsts.InternalServerError))));
+      });
+    } catch (Exception e) {
+      log.error(e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(GetConfigurationsEffectiveResponse
+          .respond500WithTextPlain(messages.getMessage(null, MessageConsts.InternalServerError))));
+    }
+  }
+
+  private static Response effectiveResponse(Config config, String ifNoneMatch) {
+    if (config == null) {
+      return GetConfigurationsEffectiveResponse.respond404WithTextPlain("Not found");
+    }
+    return entryResponse(config, ifNoneMatch);
+  }
+
+  @Validate
+  @Override
+  public void getConfigurationsChanges(String since, int limit, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    admit("get_changes", okapiHeaders, asyncResultHandler,
+        handler -> getChanges(since, limit, okapiHeaders, handler, vertxContext));
+  }
+
+  private void getChanges(String since, int limit, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    if (! ChangeFeed.isValidToken(since)) {
+      asyncResultHandler.handle(Future.succeededFuture(
+          GetConfigurationsChangesResponse.respond400WithTextPlain("Invalid since token: " + since)));
+      return;
+    }
+    String tenantId = tenantId(okapiHeaders);
+    new ChangeFeed(tenantId, AUDIT_TABLE, CONFIG_TABLE)
+    .get(PostgresClient.getInstance(vertxContext.owner(), tenantId), since, limit)
+    .onComplete(reply -> {
+      if (reply.succeeded()) {
+        asyncResultHandler.handle(Future.succeededFuture(
+            GetConfigurationsChangesResponse.respond200WithApplicationJson(reply.result())));
+        return;
+      }
+      log.error(reply.cause().getMessage(), reply.cause());
+      asyncResultHandler.handle(Future.succeededFuture(GetConfigurationsChangesResponse
+          .respond500WithTextPlain(messages.getMessage(null, MessageConsts.InternalServerError))));
+    });
+  }
+
+  @Validate
+  @Override
+  public void getConfigurationsSubscribe(String module, RoutingContext routingContext,
+      Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    ChangeNotifier.getInstance(vertxContext.owner())
+    .subscribe(tenantId(okapiHeaders), module, routingContext.response())
+    .onFailure(e -> {
+      log.warn(e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+          GetConfigurationsSubscribeResponse.respond503WithTextPlain(e.getMessage())));
+    });
+  }
+
+  @Override
+  public void getConfigurationsCache(Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    ConfigCache cache = ConfigCache.getInstance();
+    CacheStats stats = new CacheStats()
+        .withEnabled(cache.isEnabled())
+        .withMaxSize(cache.getMaxSize())
+        .withTtlMillis(cache.getTtlMillis())
+        .withSize(cache.size())
+        .withHits(cache.getHits())
+        .withMisses(cache.getMisses())
+        .withEvictions(cache.getEvictions());
+    asyncResultHandler.handle(Future.succeededFuture(
+        GetConfigurationsCacheResponse.respond200WithApplicationJson(stats)));
+  }
+
+  @Override
+  public void getConfigurationsSnapshot(RoutingContext routingContext, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    if (! admit("get_snapshot", okapiHeaders, routingContext)) {
+      return;
     }
+    String tenantId = tenantId(okapiHeaders);
+    HttpServerResponse response = routingContext.response();
+    response.putHeader(HttpHeaders.CONTENT_TYPE, "application/x-ndjson");
+    Compression.Writer writer = new Compression.Writer(response, acceptsGzip(routingContext));
+    // the primary, a snapshot for cloning a tenant must not lag behind
+    new Snapshot(tenantId, CONFIG_TABLE)
+    .write(Queryable.of(PostgresClient.getInstance(vertxContext.owner(), tenantId)), response, writer)
+    .onFailure(e -> {
+      log.error(e.getMessage(), e);
+      if (writer.hasWritten()) {
+        // the status has been sent, a truncated response is the only way to report the failure
+        routingContext.request().connection().close();
+        return;
+      }
+      response.headers().remove(HttpHeaders.CONTENT_ENCODING);
+      respondText(routingContext, 500, messages.getMessage(null, MessageConsts.InternalServerError));
+    });
+  }
+
+  @Override
+  public void postConfigurationsSnapshot(boolean replace, InputStream entity, RoutingContext routingContext,
+      Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
 
-    return message.contains("config_data_module_configname_code_idx_unique")
-      || message.contains("config_data_module_configname_idx_unique")
-      || message.contains("config_data_module_configname_code_userid_idx_unique")
-      || message.contains("config_data_module_configname_userid_idx_unique");
+    admit("post_snapshot", okapiHeaders, asyncResultHandler,
+        handler -> postSnapshot(replace, entity, okapiHeaders, handler, vertxContext));
   }
 
-  private Errors uniqueModuleConfigAndCodeError(Config entity) {
-    final Error error = new Error()
-      .withMessage("Cannot have more than one tenant or user record with the same module, config name and code")
-      .withAdditionalProperty("module", entity.getModule())
-      .withAdditionalProperty("configName", entity.getConfigName())
-      .withAdditionalProperty("code", entity.getCode())
-      .withAdditionalProperty("userId", entity.getUserId());
+  private void postSnapshot(boolean replace, InputStream entity, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
 
-    final List<Error> errorList = new ArrayList<>();
-    errorList.add(error);
+    String tenantId = tenantId(okapiHeaders);
+    new Snapshot(tenantId, CONFIG_TABLE)
+    .load(vertxContext.owner(), PostgresClient.getInstance(vertxContext.owner(), tenantId), entity, replace,
+        okapiHeaders)
+    .onComplete(reply -> {
+      ConfigCache.getInstance().invalidate(tenantId);
+      ReadRouting.getInstance().written(tenantId);
+      if (reply.succeeded()) {
+        asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsSnapshotResponse
+            .respond200WithApplicationJson(new ConfigSnapshotResult().withTotalRecords(reply.result()))));
+        return;
+      }
+      Throwable e = reply.cause();
+      if (e instanceof Snapshot.InvalidLineException) {
+        asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsSnapshotResponse
+            .respond422WithApplicationJson(ConfigErrors.error(e.getMessage()))));
+        return;
+      }
+      if (e instanceof IllegalArgumentException) {
+        asyncResultHandler.handle(Future.succeededFuture(
+            PostConfigurationsSnapshotResponse.respond400WithTextPlain(e.getMessage())));
+        return;
+      }
+      if (PgExceptionUtil.isUniqueViolation(e)) {
+        ConfigMetrics.uniqueViolation(tenantId);
+        asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsSnapshotResponse
+            .respond422WithApplicationJson(ConfigErrors.error(PgExceptionUtil.getMessage(e)))));
+        return;
+      }
+      if (PgExceptionUtil.badRequestMessage(e) != null) {
+        asyncResultHandler.handle(Future.succeededFuture(
+            PostConfigurationsSnapshotResponse.respond400WithTextPlain(PgExceptionUtil.badRequestMessage(e))));
+        return;
+      }
+      log.error(e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(PostConfigurationsSnapshotResponse
+          .respond500WithTextPlain(messages.getMessage(null, MessageConsts.InternalServerError))));
+    });
+  }
 
-    final Errors errors = new Errors();
-    errors.setErrors(errorList);
+  /**
+   * Run the CQL query against the config table and return the encoded Configs collection.
+   *
+   * @param sqlCondition  additional condition for an index, see {@link ValueJsonCondition}, may be null
+   */
+  private Future<String> getConfigs(String tenantId, String query, String sqlCondition, int offset, int limit,
+      Queryable queryable, Context context) {
 
-    return errors;
+    if (sqlCondition != null || queryable.isReplica()) {
+      return new ConfigQuery(tenantId, CONFIG_TABLE, query, sqlCondition)
+          .get(queryable, offset, limit)
+          .map(configs -> {
+            try {
+              return PostgresClient.pojo2JsonObject(configs).encode();
+            } catch (Exception e) {
+              throw new IllegalStateException(e);
+            }
+          });
+    }
+    try {
+      CQLWrapper cql = new CQLWrapper(new CQL2PgJSON(CONFIG_TABLE + ".jsonb"), query)
+          .setLimit(new Limit(limit))
+          .setOffset(new Offset(offset));
+      return PostgresClient.getInstance(context.owner(), tenantId)
+          .get(CONFIG_TABLE, Config.class, cql, true)
+          .map(results -> {
+            Configs configs = new Configs()
+                .withConfigs(results.getResults())
+                .withTotalRecords(results.getResultInfo().getTotalRecords())
+                .withResultInfo(results.getResultInfo());
+            try {
+              return PostgresClient.pojo2JsonObject(configs).encode();
+            } catch (Exception e) {
+              throw new IllegalStateException(e);
+            }
+          });
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
   }
 
-  private void defaultToEnabled(Config entity) {
-    if (entity.getEnabled() == null) {
-      entity.setEnabled(true);
+  private static String cursorError(int offset, List<String> facets) {
+    if (offset != 0) {
+      return "offset must be 0 when using cursor";
+    }
+    if (facets != null && ! facets.isEmpty()) {
+      return "facets cannot be combined with cursor";
     }
+    return null;
+  }
+
+  /**
+   * @return true for an invalid cursor or CQL query
+   */
+  private static boolean isBadRequest(Throwable e) {
+    return e instanceof IllegalArgumentException || e instanceof QueryValidationException;
+  }
+
+  private static void respondText(RoutingContext routingContext, int status, String body) {
+    routingContext.response()
+        .setStatusCode(status)
+        .putHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+        .end(body);
+  }
+
+  private static void respondJson(RoutingContext routingContext, String body) {
+    HttpServerResponse response = routingContext.response()
+        .setStatusCode(200)
+        .putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+    Compression.end(response, body, acceptsGzip(routingContext));
+  }
+
+  private static boolean acceptsGzip(RoutingContext routingContext) {
+    return Compression.acceptsGzip(routingContext.request().getHeader(HttpHeaders.ACCEPT_ENCODING));
+  }
+
+  /**
+   * Wrap asyncResultHandler so that the tenant's cached responses are removed after a write
+   * and the tenant reads its writes.
+   */
+  private static Handler<AsyncResult<Response>> invalidateCache(Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler) {
+
+    String tenantId = tenantId(okapiHeaders);
+    return reply -> {
+      ConfigCache.getInstance().invalidate(tenantId);
+      ReadRouting.getInstance().written(tenantId);
+      asyncResultHandler.handle(reply);
+    };
+  }
+
+  /**
+   * Time the request and run it if the tenant is within its limits, otherwise respond with 429,
+   * see {@link AdmissionControl}.
+   */
+  private static void admit(String operation, Map<String, String> okapiHeaders,
+      Handler<AsyncResult<Response>> asyncResultHandler, Handler<Handler<AsyncResult<Response>>> request) {
+
+    Handler<AsyncResult<Response>> handler = ConfigMetrics.timed(operation, okapiHeaders, asyncResultHandler);
+    String tenantId = tenantId(okapiHeaders);
+    AdmissionControl.Rejection rejection = AdmissionControl.getInstance().tryAcquire(tenantId);
+    if (rejection != null) {
+      ConfigMetrics.rejected(tenantId, rejection.getReason());
+      handler.handle(Future.succeededFuture(Response.status(429)
+          .header(RETRY_AFTER, rejection.getRetryAfterSeconds())
+          .header(HttpHeaders.CONTENT_TYPE.toString(), "text/plain")
+          .entity(TOO_MANY_REQUESTS).build()));
+      return;
+    }
+    AtomicBoolean released = new AtomicBoolean();
+    Handler<AsyncResult<Response>> releasing = reply -> {
+      if (released.compareAndSet(false, true)) {
+        AdmissionControl.getInstance().release(tenantId);
+      }
+      handler.handle(reply);
+    };
+    try {
+      request.handle(releasing);
+    } catch (Exception e) {
+      log.error(e.getMessage(), e);
+      if (! released.get()) {
+        releasing.handle(Future.succeededFuture(Response.status(500)
+            .header(HttpHeaders.CONTENT_TYPE.toString(), "text/plain")
+            .entity(e.getMessage()).build()));
+      }
+    }
+  }
+
+  /**
+   * Time the request and return true if the tenant is within its limits, otherwise respond with 429
+   * and return false, see {@link AdmissionControl}.
+   */
+  private static boolean admit(String operation, Map<String, String> okapiHeaders, RoutingContext routingContext) {
+    ConfigMetrics.timed(operation, okapiHeaders, routingContext);
+    String tenantId = tenantId(okapiHeaders);
+    AdmissionControl.Rejection rejection = AdmissionControl.getInstance().tryAcquire(tenantId);
+    if (rejection != null) {
+      ConfigMetrics.rejected(tenantId, rejection.getReason());
+      routingContext.response().putHeader(RETRY_AFTER, Long.toString(rejection.getRetryAfterSeconds()));
+      respondText(routingContext, 429, TOO_MANY_REQUESTS);
+      return false;
+    }
+    // also called if the connection closes before the response has ended
+    routingContext.addEndHandler(x -> AdmissionControl.getInstance().release(tenantId));
+    return true;
+  }
+
+  /**
+   * @return the read replica or, if not configured or the tenant has just written, the primary
+   */
+  private static Queryable reader(Context context, String tenantId) {
+    return ReadRouting.getInstance().reader(context.owner(), tenantId);
+  }
+
+  private static String tenantId(Map<String, String> okapiHeaders) {
+    return TenantTool.calculateTenantId(okapiHeaders.get(RestVerticle.OKAPI_HEADER_TENANT));
+  }
+
+  private void setDefaults(Config entity) {
+    ConfigDefaults.defaultToEnabled(entity);
+    ConfigDefaults.syncValueJson(entity);
   }
 }
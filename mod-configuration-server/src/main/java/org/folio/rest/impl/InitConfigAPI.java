@@ -0,0 +1,31 @@
+package org.folio.rest.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+import org.folio.config.AuditRetention;
+import org.folio.config.AuditWriteBehind;
+import org.folio.config.ConfigMetrics;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.resource.interfaces.InitAPI;
+
+/**
+ * Start the background jobs of the module.
+ */
+public class InitConfigAPI implements InitAPI {
+
+  @Override
+  public void init(Vertx vertx, Context context, Handler<AsyncResult<Boolean>> handler) {
+    AuditRetention.start(vertx);
+    AuditWriteBehind.start(vertx);
+    JsonObject connectionConfig = PostgresClient.getInstance(vertx).getConnectionConfig();
+    if (connectionConfig != null && connectionConfig.getInteger("maxPoolSize") != null) {
+      ConfigMetrics.setMaxPoolSize(connectionConfig.getInteger("maxPoolSize"));
+    }
+    handler.handle(Future.succeededFuture(true));
+  }
+}
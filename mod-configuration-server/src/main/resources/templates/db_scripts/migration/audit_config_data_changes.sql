@@ -0,0 +1,10 @@
+-- Cursor columns for GET /configurations/changes.
+-- txid is the id of the writing transaction, seq the insert order within the table.
+-- All transactions with a txid below the xmin of the current snapshot have completed,
+-- therefore the rows up to that txid are final and can be returned ordered by (txid, seq).
+ALTER TABLE ${myuniversity}_${mymodule}.audit_config_data
+  ADD COLUMN IF NOT EXISTS seq bigserial,
+  ADD COLUMN IF NOT EXISTS txid xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX IF NOT EXISTS audit_config_data_txid_seq_idx
+  ON ${myuniversity}_${mymodule}.audit_config_data (txid, seq);
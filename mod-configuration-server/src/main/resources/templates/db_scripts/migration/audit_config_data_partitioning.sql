@@ -0,0 +1,101 @@
+-- Partition audit_config_data by month of created_date, the time of the audited write.
+-- Monthly partitions are named audit_config_data_pYYYYMM (UTC), rows without a monthly
+-- partition go to audit_config_data_default.
+-- audit_config_data_maintain creates the partitions of the coming months and purges rows
+-- older than the retention window; it is called periodically by the module, see AuditRetention.java.
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.audit_config_data_maintain(
+    retention_days integer, months_ahead integer DEFAULT 2)
+  RETURNS void AS $$
+DECLARE
+  cutoff timestamptz := CASE WHEN retention_days > 0
+    THEN current_timestamp - make_interval(days => retention_days) END;
+  last_month timestamp := date_trunc('month', current_timestamp AT TIME ZONE 'UTC')
+    + make_interval(months => months_ahead);
+  part_month timestamp;
+  part record;
+  part_name text;
+BEGIN
+  -- serialize concurrent runs of several module instances
+  PERFORM pg_advisory_xact_lock(hashtext('${myuniversity}_${mymodule}.audit_config_data_maintain'));
+
+  IF cutoff IS NOT NULL THEN
+    FOR part IN SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = '${myuniversity}_${mymodule}.audit_config_data'::regclass
+          AND c.relname ~ '^audit_config_data_p[0-9]{6}$' LOOP
+      part_month := to_date(substring(part.relname from '[0-9]{6}$'), 'YYYYMM')::timestamp;
+      IF (part_month + interval '1 month') AT TIME ZONE 'UTC' <= cutoff THEN
+        EXECUTE format('DROP TABLE ${myuniversity}_${mymodule}.%I', part.relname);
+      END IF;
+    END LOOP;
+    -- the partition of the cutoff month and the default partition
+    DELETE FROM ${myuniversity}_${mymodule}.audit_config_data WHERE created_date < cutoff;
+  END IF;
+
+  SELECT date_trunc('month', min(created_date) AT TIME ZONE 'UTC') INTO part_month
+    FROM ${myuniversity}_${mymodule}.audit_config_data_default;
+  part_month := LEAST(COALESCE(part_month, last_month), date_trunc('month', current_timestamp AT TIME ZONE 'UTC'));
+  WHILE part_month <= last_month LOOP
+    part_name := 'audit_config_data_p' || to_char(part_month, 'YYYYMM');
+    IF to_regclass('${myuniversity}_${mymodule}.' || part_name) IS NULL THEN
+      -- a new partition must not overlap rows in the default partition, move them first
+      EXECUTE format('CREATE TABLE ${myuniversity}_${mymodule}.%I '
+          '(LIKE ${myuniversity}_${mymodule}.audit_config_data INCLUDING DEFAULTS)', part_name);
+      EXECUTE format('WITH moved AS (DELETE FROM ${myuniversity}_${mymodule}.audit_config_data_default '
+          'WHERE created_date >= $1 AND created_date < $2 RETURNING *) '
+          'INSERT INTO ${myuniversity}_${mymodule}.%I SELECT * FROM moved', part_name)
+        USING part_month AT TIME ZONE 'UTC', (part_month + interval '1 month') AT TIME ZONE 'UTC';
+      EXECUTE format('ALTER TABLE ${myuniversity}_${mymodule}.audit_config_data '
+          'ATTACH PARTITION ${myuniversity}_${mymodule}.%I FOR VALUES FROM (%L) TO (%L)',
+          part_name, part_month AT TIME ZONE 'UTC', (part_month + interval '1 month') AT TIME ZONE 'UTC');
+    END IF;
+    part_month := part_month + interval '1 month';
+  END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Convert the unpartitioned table of older versions. The copy runs as a single INSERT ... SELECT in the
+-- migration transaction: RENAME locks the old table ACCESS EXCLUSIVE until commit, so config_data writes,
+-- that each add an audit record, wait for the whole copy, and the copy needs the size of the audit table as
+-- free disk space until the old table is dropped. Copying in batches would not shorten the lock because all
+-- batches run in the same transaction; delete old audit records before the upgrade to shorten it, see README.
+DO $$
+DECLARE
+  seq_name text;
+BEGIN
+  IF EXISTS (SELECT 1 FROM pg_partitioned_table
+      WHERE partrelid = '${myuniversity}_${mymodule}.audit_config_data'::regclass) THEN
+    RETURN;
+  END IF;
+
+  ALTER TABLE ${myuniversity}_${mymodule}.audit_config_data RENAME TO audit_config_data_unpartitioned;
+  ALTER TABLE ${myuniversity}_${mymodule}.audit_config_data_unpartitioned
+    DROP CONSTRAINT IF EXISTS audit_config_data_pkey;
+  DROP INDEX IF EXISTS ${myuniversity}_${mymodule}.audit_config_data_txid_seq_idx;
+  -- keep the seq values, the change feed tokens of GET /configurations/changes contain them
+  seq_name := pg_get_serial_sequence('${myuniversity}_${mymodule}.audit_config_data_unpartitioned', 'seq');
+  EXECUTE format('ALTER SEQUENCE %s OWNED BY NONE', seq_name);
+
+  -- the primary key of a partitioned table must contain the partition key
+  EXECUTE format('CREATE TABLE ${myuniversity}_${mymodule}.audit_config_data ('
+      'id uuid NOT NULL, '
+      'jsonb jsonb NOT NULL, '
+      'seq bigint NOT NULL DEFAULT nextval(%L::regclass), '
+      'txid xid8 NOT NULL DEFAULT pg_current_xact_id(), '
+      'created_date timestamptz NOT NULL DEFAULT current_timestamp, '
+      'PRIMARY KEY (id, created_date)'
+      ') PARTITION BY RANGE (created_date)', seq_name);
+  EXECUTE format('ALTER SEQUENCE %s OWNED BY ${myuniversity}_${mymodule}.audit_config_data.seq', seq_name);
+  CREATE INDEX audit_config_data_txid_seq_idx
+    ON ${myuniversity}_${mymodule}.audit_config_data (txid, seq);
+  CREATE TABLE ${myuniversity}_${mymodule}.audit_config_data_default
+    PARTITION OF ${myuniversity}_${mymodule}.audit_config_data DEFAULT;
+
+  INSERT INTO ${myuniversity}_${mymodule}.audit_config_data (id, jsonb, seq, txid, created_date)
+    SELECT id, jsonb, seq, txid, COALESCE((jsonb->>'createdDate')::timestamptz, current_timestamp)
+    FROM ${myuniversity}_${mymodule}.audit_config_data_unpartitioned;
+  DROP TABLE ${myuniversity}_${mymodule}.audit_config_data_unpartitioned;
+END $$;
+
+-- move the existing rows into monthly partitions
+SELECT ${myuniversity}_${mymodule}.audit_config_data_maintain(0);
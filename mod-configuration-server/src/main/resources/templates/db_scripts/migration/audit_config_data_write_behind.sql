@@ -0,0 +1,63 @@
+-- Optional write-behind of the audit records: if enabled the rows that the auditing trigger of config_data
+-- inserts into audit_config_data are diverted into audit_config_data_queue, a plain table without indexes
+-- and partitions, and moved to audit_config_data in batches by audit_config_data_drain. The module calls it
+-- periodically, see AuditWriteBehind.java, its write_behind argument enables or disables the diversion.
+-- The queued rows keep the seq, txid and created_date of the audited write so that the order of the
+-- audit records doesn't change. The queue is logged, an unlogged table would lose the audit records on a crash.
+
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.audit_config_data_queue (
+  id uuid NOT NULL,
+  jsonb jsonb NOT NULL,
+  seq bigint NOT NULL,
+  txid xid8 NOT NULL,
+  created_date timestamptz NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.audit_config_data_write_behind (
+  id boolean PRIMARY KEY DEFAULT true CHECK (id),
+  enabled boolean NOT NULL
+);
+INSERT INTO ${myuniversity}_${mymodule}.audit_config_data_write_behind (enabled) VALUES (false)
+  ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.audit_config_data_enqueue() RETURNS trigger AS $$
+BEGIN
+  -- the drain itself inserts into audit_config_data
+  IF current_setting('mod_configuration.audit_drain', true) = 'on'
+      OR NOT (SELECT enabled FROM ${myuniversity}_${mymodule}.audit_config_data_write_behind) THEN
+    RETURN NEW;
+  END IF;
+  INSERT INTO ${myuniversity}_${mymodule}.audit_config_data_queue (id, jsonb, seq, txid, created_date)
+    VALUES (NEW.id, NEW.jsonb, NEW.seq, NEW.txid, NEW.created_date);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS audit_config_data_enqueue_trigger ON ${myuniversity}_${mymodule}.audit_config_data;
+CREATE TRIGGER audit_config_data_enqueue_trigger
+  BEFORE INSERT ON ${myuniversity}_${mymodule}.audit_config_data
+  FOR EACH ROW EXECUTE FUNCTION ${myuniversity}_${mymodule}.audit_config_data_enqueue();
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.audit_config_data_drain(
+    write_behind boolean, batch_size integer)
+  RETURNS integer AS $$
+DECLARE
+  drained integer;
+BEGIN
+  UPDATE ${myuniversity}_${mymodule}.audit_config_data_write_behind SET enabled = write_behind
+    WHERE enabled IS DISTINCT FROM write_behind;
+  -- serialize concurrent drains of several module instances
+  PERFORM pg_advisory_xact_lock(hashtext('${myuniversity}_${mymodule}.audit_config_data_drain'));
+  -- local to this transaction
+  PERFORM set_config('mod_configuration.audit_drain', 'on', true);
+  WITH batch AS (
+    DELETE FROM ${myuniversity}_${mymodule}.audit_config_data_queue
+      WHERE ctid = ANY (ARRAY(SELECT ctid FROM ${myuniversity}_${mymodule}.audit_config_data_queue LIMIT batch_size))
+      RETURNING id, jsonb, seq, txid, created_date)
+  INSERT INTO ${myuniversity}_${mymodule}.audit_config_data (id, jsonb, seq, txid, created_date)
+    SELECT id, jsonb, seq, txid, created_date FROM batch;
+  GET DIAGNOSTICS drained = ROW_COUNT;
+  PERFORM set_config('mod_configuration.audit_drain', 'off', true);
+  RETURN drained;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,76 @@
+-- Number of config_data records per module and code, maintained by triggers.
+-- Used for the module and code facets of GET /configurations/entries, see FacetCounts.java.
+-- Records without code are counted with code NULL.
+-- Each write of a record updates the counter row of its module and code, concurrent transactions that write
+-- records of the same module and code wait for each other's commit on that row lock. Configuration entries
+-- are written rarely, this is cheaper than aggregating config_data on each facet request.
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.config_data_facet_counts (
+  module text,
+  code text,
+  count bigint NOT NULL
+);
+
+-- One row per module and code, NULL included. UNIQUE NULLS NOT DISTINCT requires PostgreSQL 15,
+-- this expression index works with older versions.
+ALTER TABLE ${myuniversity}_${mymodule}.config_data_facet_counts
+  DROP CONSTRAINT IF EXISTS config_data_facet_counts_module_code_key;
+CREATE UNIQUE INDEX IF NOT EXISTS config_data_facet_counts_module_code_idx
+  ON ${myuniversity}_${mymodule}.config_data_facet_counts
+  ((COALESCE(module, '')), (COALESCE(code, '')), (module IS NULL), (code IS NULL));
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.config_data_facet_counts_update() RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'UPDATE'
+      AND OLD.jsonb->>'module' IS NOT DISTINCT FROM NEW.jsonb->>'module'
+      AND OLD.jsonb->>'code' IS NOT DISTINCT FROM NEW.jsonb->>'code' THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    -- the WHERE clauses use the expressions of config_data_facet_counts_module_code_idx,
+    -- IS NOT DISTINCT FROM cannot use that index
+    UPDATE ${myuniversity}_${mymodule}.config_data_facet_counts SET count = count - 1
+      WHERE COALESCE(module, '') = COALESCE(OLD.jsonb->>'module', '')
+        AND COALESCE(code, '') = COALESCE(OLD.jsonb->>'code', '')
+        AND (module IS NULL) = (OLD.jsonb->>'module' IS NULL)
+        AND (code IS NULL) = (OLD.jsonb->>'code' IS NULL);
+    DELETE FROM ${myuniversity}_${mymodule}.config_data_facet_counts
+      WHERE COALESCE(module, '') = COALESCE(OLD.jsonb->>'module', '')
+        AND COALESCE(code, '') = COALESCE(OLD.jsonb->>'code', '')
+        AND (module IS NULL) = (OLD.jsonb->>'module' IS NULL)
+        AND (code IS NULL) = (OLD.jsonb->>'code' IS NULL)
+        AND count <= 0;
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    INSERT INTO ${myuniversity}_${mymodule}.config_data_facet_counts (module, code, count)
+      VALUES (NEW.jsonb->>'module', NEW.jsonb->>'code', 1)
+      ON CONFLICT ((COALESCE(module, '')), (COALESCE(code, '')), (module IS NULL), (code IS NULL))
+      DO UPDATE SET count = config_data_facet_counts.count + 1;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.config_data_facet_counts_truncate() RETURNS trigger AS $$
+BEGIN
+  DELETE FROM ${myuniversity}_${mymodule}.config_data_facet_counts;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS config_data_facet_counts_trigger ON ${myuniversity}_${mymodule}.config_data;
+CREATE TRIGGER config_data_facet_counts_trigger
+  AFTER INSERT OR UPDATE OR DELETE ON ${myuniversity}_${mymodule}.config_data
+  FOR EACH ROW EXECUTE FUNCTION ${myuniversity}_${mymodule}.config_data_facet_counts_update();
+
+DROP TRIGGER IF EXISTS config_data_facet_counts_truncate_trigger ON ${myuniversity}_${mymodule}.config_data;
+CREATE TRIGGER config_data_facet_counts_truncate_trigger
+  AFTER TRUNCATE ON ${myuniversity}_${mymodule}.config_data
+  FOR EACH STATEMENT EXECUTE FUNCTION ${myuniversity}_${mymodule}.config_data_facet_counts_truncate();
+
+-- recount, the lock prevents concurrent writes that the triggers and the recount might both miss
+LOCK TABLE ${myuniversity}_${mymodule}.config_data IN SHARE MODE;
+DELETE FROM ${myuniversity}_${mymodule}.config_data_facet_counts;
+INSERT INTO ${myuniversity}_${mymodule}.config_data_facet_counts (module, code, count)
+  SELECT jsonb->>'module', jsonb->>'code', count(*)
+  FROM ${myuniversity}_${mymodule}.config_data
+  GROUP BY 1, 2;
@@ -0,0 +1,29 @@
+-- Notify the module instances of each config_data change for GET /configurations/subscribe.
+-- NOTIFY is delivered on commit. The payload is limited to 8000 bytes, therefore it contains
+-- the key properties only, clients use GET /configurations/entries/{id} to get the full entry.
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.config_data_notify() RETURNS trigger AS $$
+DECLARE
+  record jsonb;
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    record = OLD.jsonb;
+  ELSE
+    record = NEW.jsonb;
+  END IF;
+  PERFORM pg_notify('mod_configuration_config_data', jsonb_build_object(
+    'schema', TG_TABLE_SCHEMA,
+    'operation', left(TG_OP, 1),
+    'id', record->>'id',
+    'module', record->>'module',
+    'configName', record->>'configName',
+    'code', record->>'code',
+    'userId', record->>'userId',
+    'enabled', record->'enabled')::text);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS config_data_notify_trigger ON ${myuniversity}_${mymodule}.config_data;
+CREATE TRIGGER config_data_notify_trigger
+  AFTER INSERT OR UPDATE OR DELETE ON ${myuniversity}_${mymodule}.config_data
+  FOR EACH ROW EXECUTE FUNCTION ${myuniversity}_${mymodule}.config_data_notify();
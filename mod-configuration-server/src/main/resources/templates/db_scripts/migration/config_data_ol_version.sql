@@ -0,0 +1,30 @@
+-- Optimistic locking using the _version property.
+-- Unlike "withOptimisticLocking": "failOnConflict" of schema.json an update without _version
+-- still succeeds (last write wins) so that existing clients keep working.
+-- An update with a _version different from the stored one fails with the SQLSTATE 23F09
+-- that RMB maps to 409 Conflict.
+-- An insert always gets _version 1. INSERT ... ON CONFLICT DO UPDATE sees this NEW as EXCLUDED,
+-- BatchUpsert passes the _version of the request separately and compares it in DO UPDATE ... WHERE.
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.config_data_set_ol_version() RETURNS trigger AS $$
+BEGIN
+  CASE TG_OP
+    WHEN 'INSERT' THEN
+      NEW.jsonb = jsonb_set(NEW.jsonb, '{_version}', to_jsonb(1));
+    WHEN 'UPDATE' THEN
+      IF NEW.jsonb ? '_version' AND NEW.jsonb->'_version' IS DISTINCT FROM OLD.jsonb->'_version' THEN
+        RAISE 'Cannot update record % because it has been changed (optimistic locking): '
+              'Stored _version is %, _version of request is %',
+              OLD.id, OLD.jsonb->'_version', NEW.jsonb->'_version'
+              USING ERRCODE = '23F09', TABLE = TG_TABLE_NAME, SCHEMA = TG_TABLE_SCHEMA;
+      END IF;
+      NEW.jsonb = jsonb_set(NEW.jsonb, '{_version}',
+          to_jsonb(COALESCE((OLD.jsonb->>'_version')::numeric + 1, 1)));
+  END CASE;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS config_data_set_ol_version_trigger ON ${myuniversity}_${mymodule}.config_data;
+CREATE TRIGGER config_data_set_ol_version_trigger
+  BEFORE INSERT OR UPDATE ON ${myuniversity}_${mymodule}.config_data
+  FOR EACH ROW EXECUTE FUNCTION ${myuniversity}_${mymodule}.config_data_set_ol_version();
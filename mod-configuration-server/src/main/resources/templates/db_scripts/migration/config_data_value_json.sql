@@ -0,0 +1,30 @@
+-- Backfill valueJson from value if value is a JSON object, like ConfigDefaults.syncValueJson does
+-- for each POST and PUT.
+-- The user triggers are disabled so that the backfill doesn't change metadata and _version
+-- and doesn't create audit records; the collection ETag version is incremented explicitly.
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.config_data_value_json(value text) RETURNS jsonb AS $$
+BEGIN
+  IF left(ltrim(value), 1) <> '{' THEN
+    RETURN NULL;
+  END IF;
+  RETURN value::jsonb;
+EXCEPTION WHEN invalid_text_representation THEN
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE STRICT;
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM ${myuniversity}_${mymodule}.config_data
+             WHERE NOT jsonb ? 'valueJson'
+               AND ${myuniversity}_${mymodule}.config_data_value_json(jsonb->>'value') IS NOT NULL) THEN
+    ALTER TABLE ${myuniversity}_${mymodule}.config_data DISABLE TRIGGER USER;
+    UPDATE ${myuniversity}_${mymodule}.config_data
+      SET jsonb = jsonb || jsonb_build_object('valueJson',
+            ${myuniversity}_${mymodule}.config_data_value_json(jsonb->>'value'))
+      WHERE NOT jsonb ? 'valueJson'
+        AND ${myuniversity}_${mymodule}.config_data_value_json(jsonb->>'value') IS NOT NULL;
+    ALTER TABLE ${myuniversity}_${mymodule}.config_data ENABLE TRIGGER USER;
+    UPDATE ${myuniversity}_${mymodule}.config_data_version SET version = version + 1;
+  END IF;
+END $$;
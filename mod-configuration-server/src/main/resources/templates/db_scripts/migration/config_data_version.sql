@@ -0,0 +1,38 @@
+-- Version of the config_data table, incremented once by every transaction that changes it.
+-- Used as ETag of GET /configurations/entries.
+-- The increment runs in a deferred constraint trigger at commit time, so the row lock on the counter
+-- is held only from the end of the transaction until its commit: concurrent writers don't queue behind
+-- each other for their whole duration, and a reader still never sees a new version before the changed
+-- data is visible. TRUNCATE has no row triggers, it increments immediately.
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.config_data_version (
+  id int PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+  version bigint NOT NULL
+);
+
+INSERT INTO ${myuniversity}_${mymodule}.config_data_version (id, version) VALUES (1, 0)
+  ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.config_data_version_increment() RETURNS trigger AS $$
+DECLARE
+  tx text := TG_TABLE_SCHEMA || ' ' || txid_current();
+BEGIN
+  -- once per transaction
+  IF current_setting('mod_configuration.config_data_version_tx', true) IS NOT DISTINCT FROM tx THEN
+    RETURN NULL;
+  END IF;
+  PERFORM set_config('mod_configuration.config_data_version_tx', tx, true);
+  UPDATE ${myuniversity}_${mymodule}.config_data_version SET version = version + 1;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS config_data_version_trigger ON ${myuniversity}_${mymodule}.config_data;
+CREATE CONSTRAINT TRIGGER config_data_version_trigger
+  AFTER INSERT OR UPDATE OR DELETE ON ${myuniversity}_${mymodule}.config_data
+  DEFERRABLE INITIALLY DEFERRED
+  FOR EACH ROW EXECUTE FUNCTION ${myuniversity}_${mymodule}.config_data_version_increment();
+
+DROP TRIGGER IF EXISTS config_data_version_truncate_trigger ON ${myuniversity}_${mymodule}.config_data;
+CREATE TRIGGER config_data_version_truncate_trigger
+  AFTER TRUNCATE ON ${myuniversity}_${mymodule}.config_data
+  FOR EACH STATEMENT EXECUTE FUNCTION ${myuniversity}_${mymodule}.config_data_version_increment();
@@ -0,0 +1,61 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class AdmissionControlTest {
+  private final AtomicLong now = new AtomicLong(1000);
+
+  @Test
+  public void disabled() {
+    AdmissionControl admissionControl = new AdmissionControl(0, 0, 0, now::get);
+    assertThat(admissionControl.isEnabled(), is(false));
+    for (int i = 0; i < 100; i++) {
+      assertThat(admissionControl.tryAcquire("t"), is(nullValue()));
+    }
+  }
+
+  @Test
+  public void concurrency() {
+    AdmissionControl admissionControl = new AdmissionControl(2, 0, 0, now::get);
+    assertThat(admissionControl.tryAcquire("t"), is(nullValue()));
+    assertThat(admissionControl.tryAcquire("t"), is(nullValue()));
+    AdmissionControl.Rejection rejection = admissionControl.tryAcquire("t");
+    assertThat(rejection.getReason(), is("concurrency"));
+    assertThat(rejection.getRetryAfterSeconds(), is(1L));
+    assertThat(admissionControl.tryAcquire("other"), is(nullValue()));
+    admissionControl.release("t");
+    assertThat(admissionControl.inProgress("t"), is(1));
+    assertThat(admissionControl.tryAcquire("t"), is(nullValue()));
+  }
+
+  @Test
+  public void rate() {
+    AdmissionControl admissionControl = new AdmissionControl(0, 2, 3, now::get);
+    for (int i = 0; i < 3; i++) {
+      assertThat(admissionControl.tryAcquire("t"), is(nullValue()));
+      admissionControl.release("t");
+    }
+    AdmissionControl.Rejection rejection = admissionControl.tryAcquire("t");
+    assertThat(rejection.getReason(), is("rate"));
+    assertThat(rejection.getRetryAfterSeconds(), is(1L));
+    assertThat(admissionControl.tryAcquire("other"), is(nullValue()));
+    now.addAndGet(499);
+    assertThat(admissionControl.tryAcquire("t").getReason(), is("rate"));
+    now.addAndGet(2);
+    assertThat(admissionControl.tryAcquire("t"), is(nullValue()));
+    assertThat(admissionControl.tryAcquire("t").getReason(), is("rate"));
+  }
+
+  @Test
+  public void retryAfter() {
+    AdmissionControl admissionControl = new AdmissionControl(0, 1, 1, now::get);
+    assertThat(admissionControl.tryAcquire("t"), is(nullValue()));
+    now.addAndGet(100);
+    assertThat(admissionControl.tryAcquire("t").getRetryAfterSeconds(), is(1L));
+  }
+}
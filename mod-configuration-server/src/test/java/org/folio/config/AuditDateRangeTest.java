@@ -0,0 +1,42 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Instant;
+import org.junit.Test;
+
+public class AuditDateRangeTest {
+
+  @Test
+  public void noDate() {
+    assertThat(AuditDateRange.sqlCondition(null), is(nullValue()));
+    assertThat(AuditDateRange.sqlCondition("config_data.module==CIRCULATION"), is(nullValue()));
+    assertThat(AuditDateRange.sqlCondition("createdDate==2025-01-01"), is(nullValue()));
+    assertThat(AuditDateRange.sqlCondition("createdDate>foo"), is(nullValue()));
+    assertThat(AuditDateRange.sqlCondition("createdDate>2025-01-01 or operation==D"), is(nullValue()));
+    assertThat(AuditDateRange.sqlCondition("(("), is(nullValue()));
+  }
+
+  @Test
+  public void from() {
+    assertThat(AuditDateRange.sqlCondition("createdDate>=2025-03-01"),
+        is("created_date >= '2025-02-28T00:00:00Z'::timestamptz"));
+  }
+
+  @Test
+  public void fromTo() {
+    assertThat(AuditDateRange.sqlCondition(
+        "operation==U and createdDate>2025-03-01 and createdDate>2025-03-05 and createdDate<\"2025-04-01T12:00:00+02:00\""
+        + " sortBy createdDate"),
+        is("created_date >= '2025-03-04T00:00:00Z'::timestamptz AND created_date <= '2025-04-02T10:00:00Z'::timestamptz"));
+  }
+
+  @Test
+  public void parse() {
+    assertThat(AuditDateRange.parse("2025-03-01"), is(Instant.parse("2025-03-01T00:00:00Z")));
+    assertThat(AuditDateRange.parse("2025-03-01T01:02:03.456+01:00"), is(Instant.parse("2025-03-01T00:02:03.456Z")));
+    assertThat(AuditDateRange.parse("x"), is(nullValue()));
+  }
+}
@@ -0,0 +1,23 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class CompressionTest {
+
+  @Test
+  public void acceptsGzip() {
+    assertThat(Compression.acceptsGzip(null), is(false));
+    assertThat(Compression.acceptsGzip(""), is(false));
+    assertThat(Compression.acceptsGzip("identity"), is(false));
+    assertThat(Compression.acceptsGzip("gzip"), is(true));
+    assertThat(Compression.acceptsGzip("deflate, GZIP;q=0.5"), is(true));
+    assertThat(Compression.acceptsGzip("br, x-gzip"), is(true));
+    assertThat(Compression.acceptsGzip("gzip;q=0"), is(false));
+    assertThat(Compression.acceptsGzip("*"), is(true));
+    assertThat(Compression.acceptsGzip("*;q=0.1, gzip;q=0"), is(false));
+    assertThat(Compression.acceptsGzip("gzip;q=foo"), is(false));
+  }
+}
@@ -0,0 +1,80 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class ConfigCacheTest {
+  private final AtomicLong now = new AtomicLong(1000);
+  private final ConfigCache cache = new ConfigCache(2, 100, now::get);
+
+  @Test
+  public void keyIgnoresWhitespace() {
+    assertThat(ConfigCache.key(" module==A   and  configName==B ", 0, 10),
+        is(ConfigCache.key("module==A and configName==B", 0, 10)));
+    assertThat(ConfigCache.key(null, 0, 10), is(ConfigCache.key("", 0, 10)));
+  }
+
+  @Test
+  public void etag() {
+    cache.put("t", cache.generation("t"), "k", "\"v1\"", "body");
+    assertThat(cache.getCached("t", "k").getBody(), is("body"));
+    assertThat(cache.getCached("t", "k").getETag(), is("\"v1\""));
+    cache.put("t", cache.generation("t"), "k", "body");
+    assertThat(cache.getCached("t", "k").getETag(), is(nullValue()));
+  }
+
+  @Test
+  public void hitAndMiss() {
+    assertThat(cache.get("t", "k"), is(nullValue()));
+    cache.put("t", cache.generation("t"), "k", "body");
+    assertThat(cache.get("t", "k"), is("body"));
+    assertThat(cache.get("other", "k"), is(nullValue()));
+    assertThat(cache.getHits(), is(1L));
+    assertThat(cache.getMisses(), is(2L));
+  }
+
+  @Test
+  public void expires() {
+    cache.put("t", cache.generation("t"), "k", "body");
+    now.addAndGet(99);
+    assertThat(cache.get("t", "k"), is("body"));
+    now.addAndGet(1);
+    assertThat(cache.get("t", "k"), is(nullValue()));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsed() {
+    cache.put("t", cache.generation("t"), "a", "1");
+    cache.put("t", cache.generation("t"), "b", "2");
+    cache.get("t", "a");
+    cache.put("t", cache.generation("t"), "c", "3");
+    assertThat(cache.get("t", "a"), is("1"));
+    assertThat(cache.get("t", "b"), is(nullValue()));
+    assertThat(cache.getEvictions(), is(1L));
+    assertThat(cache.size(), is(2));
+  }
+
+  @Test
+  public void invalidateSkipsStalePut() {
+    cache.put("t", cache.generation("t"), "a", "1");
+    cache.put("u", cache.generation("u"), "a", "1");
+    long generation = cache.generation("t");
+    cache.invalidate("t");
+    cache.put("t", generation, "b", "2");
+    assertThat(cache.get("t", "a"), is(nullValue()));
+    assertThat(cache.get("t", "b"), is(nullValue()));
+    assertThat(cache.get("u", "a"), is("1"));
+  }
+
+  @Test
+  public void disabled() {
+    ConfigCache disabled = new ConfigCache(0, 100, now::get);
+    assertThat(disabled.isEnabled(), is(false));
+    disabled.put("t", disabled.generation("t"), "a", "1");
+    assertThat(disabled.get("t", "a"), is(nullValue()));
+  }
+}
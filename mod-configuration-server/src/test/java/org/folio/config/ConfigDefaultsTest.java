@@ -0,0 +1,51 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.ValueJson;
+import org.junit.Test;
+
+public class ConfigDefaultsTest {
+
+  @Test
+  public void defaultToEnabled() {
+    Config config = new Config();
+    ConfigDefaults.defaultToEnabled(config);
+    assertThat(config.getEnabled(), is(true));
+    ConfigDefaults.defaultToEnabled(config.withEnabled(false));
+    assertThat(config.getEnabled(), is(false));
+  }
+
+  @Test
+  public void syncValueJsonFromValue() {
+    Config config = new Config().withValue(" {\"a\": {\"b\": 1}}");
+    ConfigDefaults.syncValueJson(config);
+    assertThat(config.getValueJson().getAdditionalProperties().get("a").toString(), is("{b=1}"));
+  }
+
+  @Test
+  public void syncValueJsonRemovesStaleValueJson() {
+    Config config = new Config().withValue("true").withValueJson(new ValueJson().withAdditionalProperty("a", 1));
+    ConfigDefaults.syncValueJson(config);
+    assertThat(config.getValueJson(), is(nullValue()));
+    assertThat(config.getValue(), is("true"));
+  }
+
+  @Test
+  public void syncValueJsonToValue() {
+    Config config = new Config().withValueJson(new ValueJson().withAdditionalProperty("a", "x"));
+    ConfigDefaults.syncValueJson(config);
+    assertThat(config.getValue(), is("{\"a\":\"x\"}"));
+  }
+
+  @Test
+  public void parse() {
+    assertThat(ConfigDefaults.parse(""), is(nullValue()));
+    assertThat(ConfigDefaults.parse("[1]"), is(nullValue()));
+    assertThat(ConfigDefaults.parse("{"), is(nullValue()));
+    assertThat(ConfigDefaults.parse("{}").getAdditionalProperties().isEmpty(), is(true));
+  }
+}
@@ -0,0 +1,35 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.vertx.core.Future;
+import java.util.Map;
+import javax.ws.rs.core.Response;
+import org.junit.Test;
+
+public class ConfigMetricsTest {
+
+  @Test
+  public void outcome() {
+    assertThat(ConfigMetrics.outcome(200), is("SUCCESS"));
+    assertThat(ConfigMetrics.outcome(304), is("SUCCESS"));
+    assertThat(ConfigMetrics.outcome(422), is("CLIENT_ERROR"));
+    assertThat(ConfigMetrics.outcome(500), is("SERVER_ERROR"));
+  }
+
+  @Test
+  public void timed() {
+    int[] handled = { 0 };
+    ConfigMetrics.timed("unit_test", Map.of("x-okapi-tenant", "metrics"), reply -> handled[0]++)
+        .handle(Future.succeededFuture(Response.status(409).build()));
+    ConfigMetrics.uniqueViolation("metrics");
+    assertThat(handled[0], is(1));
+    String scrape = ConfigMetrics.scrape();
+    assertThat(scrape, containsString(
+        "configuration_requests_seconds_count{operation=\"unit_test\",outcome=\"CLIENT_ERROR\",status=\"409\",tenant=\"metrics\"} 1"));
+    assertThat(scrape, containsString("configuration_unique_violations_total{tenant=\"metrics\"} 1"));
+    assertThat(scrape, containsString("configuration_http_requests_in_progress"));
+  }
+}
@@ -0,0 +1,36 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+public class CqlClausesTest {
+
+  @Test
+  public void all() {
+    CqlClauses clauses = CqlClauses.of("config_data", null, null);
+    assertThat(clauses.getWhere(), is("true"));
+    assertThat(clauses.getOrderBy(), is(""));
+    assertThat(clauses.hasOrderBy(), is(false));
+    assertThat(CqlClauses.of("config_data", " ", "x = 1").getWhere(), is("true AND (x = 1)"));
+  }
+
+  @Test
+  public void query() {
+    CqlClauses clauses = CqlClauses.of("config_data", "module==A sortBy code", "x = 1");
+    assertThat(clauses.getWhere(), startsWith("("));
+    assertThat(clauses.getWhere(), containsString(") AND (x = 1)"));
+    assertThat(clauses.getOrderBy(), startsWith(" ORDER BY "));
+    assertThat(clauses.hasOrderBy(), is(true));
+    assertThat(CqlClauses.of("config_data", "module==A", null).hasOrderBy(), is(false));
+  }
+
+  @Test
+  public void invalid() {
+    assertThrows(IllegalArgumentException.class, () -> CqlClauses.of("config_data", "module==A and (", null));
+  }
+}
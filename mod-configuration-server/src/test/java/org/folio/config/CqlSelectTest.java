@@ -0,0 +1,44 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.vertx.core.Future;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class CqlSelectTest {
+
+  @Test
+  public void page() {
+    assertThat(CqlSelect.of("diku", "config_data", null, null).page("jsonb"),
+        is("SELECT jsonb FROM diku_mod_configuration.config_data WHERE true LIMIT $1 OFFSET $2"));
+    assertThat(CqlSelect.of("diku", "config_data", "module==A sortBy code", null).page("jsonb::text AS jsonb"),
+        startsWith("SELECT jsonb::text AS jsonb FROM diku_mod_configuration.config_data WHERE ("));
+    assertThat(CqlSelect.pageParameters(20, 10).getInteger(0), is(10));
+    assertThat(CqlSelect.pageParameters(20, 10).getInteger(1), is(20));
+  }
+
+  @Test
+  public void count() {
+    CqlSelect select = CqlSelect.of("diku", "config_data", null, "x = 1");
+    List<String> sqls = new ArrayList<>();
+    select.count(null, sql -> {
+      sqls.add(sql);
+      return Future.failedFuture("");
+    });
+    select.count(TotalRecords.EXACT, sql -> {
+      sqls.add(sql);
+      return Future.failedFuture("");
+    });
+    assertThat(sqls.get(0), is("SELECT diku_mod_configuration.count_estimate("
+        + "'SELECT jsonb FROM diku_mod_configuration.config_data WHERE true AND (x = 1)')"));
+    assertThat(sqls.get(1), is("SELECT count(*) FROM diku_mod_configuration.config_data WHERE true AND (x = 1)"));
+    assertThat(select.count(TotalRecords.NONE, sql -> {
+      throw new AssertionError(sql);
+    }).result(), is(nullValue()));
+  }
+}
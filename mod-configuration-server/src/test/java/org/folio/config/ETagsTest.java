@@ -0,0 +1,35 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Date;
+import org.folio.rest.jaxrs.model.Config;
+import org.folio.rest.jaxrs.model.Metadata;
+import org.junit.Test;
+
+public class ETagsTest {
+
+  @Test
+  public void ofConfig() {
+    assertThat(ETags.of(null), is(nullValue()));
+    assertThat(ETags.of(new Config()), is(nullValue()));
+    assertThat(ETags.of(new Config().withMetadata(new Metadata())), is(nullValue()));
+    assertThat(ETags.of(new Config().withMetadata(new Metadata().withUpdatedDate(new Date(1234)))), is("\"-1234\""));
+    assertThat(ETags.of(new Config().withVersion(3)), is("\"3-\""));
+    assertThat(ETags.of(new Config().withVersion(3).withMetadata(new Metadata().withUpdatedDate(new Date(1234)))),
+        is("\"3-1234\""));
+  }
+
+  @Test
+  public void matches() {
+    assertThat(ETags.matches(null, "\"1\""), is(false));
+    assertThat(ETags.matches("\"1\"", null), is(false));
+    assertThat(ETags.matches("\"1\"", "\"1\""), is(true));
+    assertThat(ETags.matches("W/\"1\"", "\"1\""), is(true));
+    assertThat(ETags.matches("\"0\", \"1\"", "\"1\""), is(true));
+    assertThat(ETags.matches("\"0\", \"2\"", "\"1\""), is(false));
+    assertThat(ETags.matches(" * ", "\"1\""), is(true));
+  }
+}
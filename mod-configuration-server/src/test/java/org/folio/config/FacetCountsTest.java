@@ -0,0 +1,43 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class FacetCountsTest {
+
+  @Test
+  public void unfiltered() {
+    FacetCounts facetCounts = FacetCounts.parse(null, List.of("code", "module:10"));
+    assertThat(facetCounts.getModule(), is(nullValue()));
+    assertThat(facetCounts.getFacets(), is(Map.of("code", 5, "module", 10)));
+    assertThat(FacetCounts.parse(" ", List.of("module")).getModule(), is(nullValue()));
+    assertThat(FacetCounts.parse("cql.allRecords=1", List.of("module")).getModule(), is(nullValue()));
+  }
+
+  @Test
+  public void module() {
+    assertThat(FacetCounts.parse("module==CHECKOUT", List.of("code")).getModule(), is("CHECKOUT"));
+    assertThat(FacetCounts.parse(" module == \"ORDERS\" ", List.of("code")).getModule(), is("ORDERS"));
+    assertThat(FacetCounts.parse("module==orders.prefix", List.of("code")).getModule(), is("orders.prefix"));
+  }
+
+  @Test
+  public void needsAggregation() {
+    assertThat(FacetCounts.parse(null, null), is(nullValue()));
+    assertThat(FacetCounts.parse(null, List.of()), is(nullValue()));
+    assertThat(FacetCounts.parse(null, List.of("code", "configName")), is(nullValue()));
+    assertThat(FacetCounts.parse(null, List.of("code:x")), is(nullValue()));
+    assertThat(FacetCounts.parse("module=CHECKOUT", List.of("code")), is(nullValue()));
+    assertThat(FacetCounts.parse("module==CHECK*", List.of("code")), is(nullValue()));
+    assertThat(FacetCounts.parse("module==\"CHECK*\"", List.of("code")), is(nullValue()));
+    assertThat(FacetCounts.parse("module==and", List.of("code")), is(nullValue()));
+    assertThat(FacetCounts.parse("module==A and code==B", List.of("code")), is(nullValue()));
+    assertThat(FacetCounts.parse("module==A sortBy code", List.of("code")), is(nullValue()));
+    assertThat(FacetCounts.parse("code=config_data*", List.of("code")), is(nullValue()));
+  }
+}
@@ -0,0 +1,21 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class KeyLookupTest {
+
+  @Test
+  public void sqlHasBranchForEachPartialUniqueIndex() {
+    String sql = KeyLookup.sql("t");
+    assertThat(sql.split("UNION ALL").length, is(4));
+    assertThat(sql, containsString("WHERE k.code IS NULL AND k.user_id IS NULL"
+        + " AND (c.jsonb->'code') is null AND (c.jsonb->'userId') is null"));
+    assertThat(sql, containsString("WHERE k.code IS NOT NULL AND k.user_id IS NOT NULL"
+        + " AND (c.jsonb->'code') is not null AND (c.jsonb->'userId') is not null"));
+    assertThat(sql, containsString("lower(f_unaccent(c.jsonb->>'userId')) = lower(f_unaccent(k.user_id))"));
+  }
+}
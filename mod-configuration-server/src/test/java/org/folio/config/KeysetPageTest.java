@@ -0,0 +1,40 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.UUID;
+import org.junit.Test;
+
+public class KeysetPageTest {
+
+  @Test
+  public void start() {
+    assertThat(KeysetPage.decode(KeysetPage.START), is(nullValue()));
+  }
+
+  @Test
+  public void roundTrip() {
+    String id = "8d850f8d-3433-41e3-b0da-0c4b2d9a384e";
+    assertThat(KeysetPage.decode(KeysetPage.encode(id)), is(UUID.fromString(id)));
+  }
+
+  @Test
+  public void invalid() {
+    assertThrows(IllegalArgumentException.class, () -> KeysetPage.decode("foo"));
+    assertThrows(IllegalArgumentException.class, () -> KeysetPage.decode("!!"));
+    assertThrows(IllegalArgumentException.class, () -> KeysetPage.decode(KeysetPage.encode("foo")));
+  }
+
+  @Test
+  public void sql() {
+    String first = new KeysetPage("diku", "config_data", "module==CHECKOUT", KeysetPage.START, 10).sql();
+    assertThat(first.contains("id >"), is(false));
+    assertThat(first.endsWith(" ORDER BY id LIMIT $1"), is(true));
+    String next = new KeysetPage("diku", "config_data", "module==CHECKOUT",
+        KeysetPage.encode("8d850f8d-3433-41e3-b0da-0c4b2d9a384e"), 10).sql();
+    assertThat(next.endsWith(" AND id > $2 ORDER BY id LIMIT $1"), is(true));
+  }
+}
@@ -0,0 +1,47 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class PointLookupTest {
+
+  @Test
+  public void parse() {
+    PointLookup lookup = PointLookup.parse("module==CHECKOUT and configName==other_settings and code==timeout");
+    assertThat(lookup.getModule(), is("CHECKOUT"));
+    assertThat(lookup.getConfigName(), is("other_settings"));
+    assertThat(lookup.getCode(), is("timeout"));
+  }
+
+  @Test
+  public void parseAnyOrderAndQuotes() {
+    PointLookup lookup = PointLookup.parse(" code == \"a \\\"b\\\"\"  AND module==\"ORDERS\" and configName==orders.prefix ");
+    assertThat(lookup.getModule(), is("ORDERS"));
+    assertThat(lookup.getConfigName(), is("orders.prefix"));
+    assertThat(lookup.getCode(), is("a \"b\""));
+  }
+
+  @Test
+  public void otherShapes() {
+    assertThat(PointLookup.parse(null), is(nullValue()));
+    assertThat(PointLookup.parse("module==A and configName==B"), is(nullValue()));
+    assertThat(PointLookup.parse("module==A and configName==B and code==C and userId==D"), is(nullValue()));
+    assertThat(PointLookup.parse("module==A and configName==B and module==C"), is(nullValue()));
+    assertThat(PointLookup.parse("module==A or configName==B and code==C"), is(nullValue()));
+    assertThat(PointLookup.parse("module=A and configName==B and code==C"), is(nullValue()));
+    assertThat(PointLookup.parse("module==A and configName==B and code==C sortBy code"), is(nullValue()));
+    assertThat(PointLookup.parse("(module==A and configName==B) and code==C"), is(nullValue()));
+    assertThat(PointLookup.parse("module==A and configName==B and code==/respectCase C"), is(nullValue()));
+  }
+
+  @Test
+  public void masking() {
+    assertThat(PointLookup.parse("module==A* and configName==B and code==C"), is(nullValue()));
+    assertThat(PointLookup.parse("module==A and configName==\"B?\" and code==C"), is(nullValue()));
+    assertThat(PointLookup.parse("module==A and configName==B and code==\"\\*\""), is(nullValue()));
+    assertThat(PointLookup.parse("module==A and configName==B and code==\"\""), is(nullValue()));
+  }
+}
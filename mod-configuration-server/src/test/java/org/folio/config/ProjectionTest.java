@@ -0,0 +1,37 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.List;
+import org.folio.rest.jaxrs.model.Config;
+import org.junit.Test;
+
+public class ProjectionTest {
+
+  @Test
+  public void noProjection() {
+    assertThat(Projection.of(null, Config.class), is(nullValue()));
+    assertThat(Projection.of(" ", Config.class), is(nullValue()));
+  }
+
+  @Test
+  public void fields() {
+    assertThat(Projection.of("code, value,code", Config.class).getFields(), is(List.of("code", "value")));
+  }
+
+  @Test
+  public void unknownField() {
+    assertThrows(IllegalArgumentException.class, () -> Projection.of("code,foo", Config.class));
+    assertThrows(IllegalArgumentException.class, () -> Projection.of("code,'", Config.class));
+  }
+
+  @Test
+  public void sql() {
+    assertThat(Projection.of("id,_version", Config.class).sql(),
+        is("(SELECT coalesce(jsonb_object_agg(p.key, p.value), '{}'::jsonb) FROM jsonb_each(jsonb) AS p(key, value)"
+            + " WHERE p.key IN ('id', '_version'))"));
+  }
+}
@@ -0,0 +1,58 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.SslMode;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class ReadRoutingTest {
+  private final AtomicLong now = new AtomicLong(1000);
+  private final ReadRouting readRouting = new ReadRouting("replica", 0, 100, now::get);
+
+  @Test
+  public void disabled() {
+    ReadRouting disabled = new ReadRouting(null, 0, 100, now::get);
+    assertThat(disabled.isEnabled(), is(false));
+    assertThat(disabled.useReplica("t"), is(false));
+  }
+
+  @Test
+  public void readYourWrites() {
+    assertThat(readRouting.isEnabled(), is(true));
+    assertThat(readRouting.useReplica("t"), is(true));
+    readRouting.written("t");
+    assertThat(readRouting.useReplica("t"), is(false));
+    assertThat(readRouting.useReplica("other"), is(true));
+    now.addAndGet(99);
+    assertThat(readRouting.useReplica("t"), is(false));
+    now.addAndGet(1);
+    assertThat(readRouting.useReplica("t"), is(true));
+  }
+
+  @Test
+  public void connectOptions() {
+    JsonObject config = new JsonObject().put("host", "primary").put("port", 5433)
+        .put("database", "db").put("username", "diku_mod_configuration").put("password", "secret");
+    PgConnectOptions options = ReadRouting.connectOptions(config, "replica", 0);
+    assertThat(options.getHost(), is("replica"));
+    assertThat(options.getPort(), is(5433));
+    assertThat(options.getDatabase(), is("db"));
+    assertThat(options.getUser(), is("diku_mod_configuration"));
+    assertThat(options.getPassword(), is("secret"));
+    assertThat(ReadRouting.connectOptions(config, "replica", 6543).getPort(), is(6543));
+    assertThat(options.getSslMode(), is(SslMode.DISABLE));
+  }
+
+  @Test
+  public void connectOptionsSsl() {
+    JsonObject config = new JsonObject().put("server_pem", "-----BEGIN CERTIFICATE-----");
+    PgConnectOptions options = ReadRouting.connectOptions(config, "replica", 0);
+    assertThat(options.getSslMode(), is(SslMode.VERIFY_FULL));
+    assertThat(options.getSslOptions().getHostnameVerificationAlgorithm(), is("HTTPS"));
+    assertThat(options.getSslOptions().getEnabledSecureTransportProtocols().contains("TLSv1.3"), is(true));
+  }
+}
@@ -0,0 +1,56 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SingleFlightTest {
+  private final AtomicInteger queries = new AtomicInteger();
+  private final Promise<String> promise = Promise.promise();
+
+  private Future<String> query() {
+    queries.incrementAndGet();
+    return promise.future();
+  }
+
+  @Test
+  public void coalesce() {
+    SingleFlight singleFlight = new SingleFlight(true);
+    Future<String> a = singleFlight.run("t", "k", this::query);
+    Future<String> b = singleFlight.run("t", "k", this::query);
+    singleFlight.run("other", "k", this::query);
+    singleFlight.run("t", "other", this::query);
+    assertThat(queries.get(), is(3));
+    assertThat(singleFlight.size(), is(3));
+    promise.complete("body");
+    assertThat(a.result(), is("body"));
+    assertThat(b.result(), is("body"));
+    assertThat(singleFlight.size(), is(0));
+    singleFlight.run("t", "k", this::query);
+    assertThat(queries.get(), is(4));
+  }
+
+  @Test
+  public void failure() {
+    SingleFlight singleFlight = new SingleFlight(true);
+    Future<String> a = singleFlight.run("t", "k", this::query);
+    Future<String> b = singleFlight.run("t", "k", this::query);
+    promise.fail("boom");
+    assertThat(a.cause().getMessage(), is("boom"));
+    assertThat(b.cause().getMessage(), is("boom"));
+    assertThat(singleFlight.size(), is(0));
+  }
+
+  @Test
+  public void disabled() {
+    SingleFlight singleFlight = new SingleFlight(false);
+    singleFlight.run("t", "k", this::query);
+    singleFlight.run("t", "k", this::query);
+    assertThat(queries.get(), is(2));
+    assertThat(singleFlight.size(), is(0));
+  }
+}
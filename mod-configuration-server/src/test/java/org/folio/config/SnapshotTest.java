@@ -0,0 +1,94 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.folio.rest.jaxrs.model.Config;
+import org.junit.Test;
+
+public class SnapshotTest {
+  private static final String A_ID = "11111111-1111-4111-8111-111111111111";
+  private static final String B_ID = "22222222-2222-4222-8222-222222222222";
+  private static final String C_ID = "33333333-3333-4333-8333-333333333333";
+  private static final String A = "{\"id\":\"" + A_ID + "\",\"module\":\"A\",\"configName\":\"a\"}";
+  private static final String B = "{\"id\":\"" + B_ID + "\",\"module\":\"B\",\"configName\":\"b\"}";
+  private static final String C = "{\"id\":\"" + C_ID + "\",\"module\":\"C\",\"configName\":\"c\"}";
+
+  private static Snapshot.Lines lines(String ndjson, int chunkSize) throws IOException {
+    return new Snapshot.Lines(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), chunkSize);
+  }
+
+  private static List<String> ids(List<Config> configs) {
+    return configs.stream().map(Config::getId).toList();
+  }
+
+  @Test
+  public void chunks() throws IOException {
+    Snapshot.Lines lines = lines(A + "\n\n" + B + "\r\n" + C, 2);
+    assertThat(ids(lines.next()), is(List.of(A_ID, B_ID)));
+    assertThat(ids(lines.next()), is(List.of(C_ID)));
+    assertThat(lines.next(), is(List.of()));
+  }
+
+  @Test
+  public void gzip() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write((A + "\n" + B + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+    Snapshot.Lines lines = new Snapshot.Lines(new ByteArrayInputStream(bytes.toByteArray()), 10);
+    assertThat(ids(lines.next()), is(List.of(A_ID, B_ID)));
+  }
+
+  @Test
+  public void defaults() throws IOException {
+    String line = "{\"id\":\"" + A_ID + "\",\"module\":\"A\",\"configName\":\"a\","
+        + "\"value\":\"{\\\"x\\\":1}\",\"_version\":7}";
+    Config config = lines(line, 10).next().get(0);
+    assertThat(config.getEnabled(), is(true));
+    assertThat(config.getValueJson().getAdditionalProperties().get("x").toString(), is("1"));
+    assertThat(config.getVersion(), is(nullValue()));
+  }
+
+  @Test
+  public void empty() throws IOException {
+    assertThat(new Snapshot.Lines(null, 10).next(), is(List.of()));
+    assertThat(lines("", 10).next(), is(List.of()));
+  }
+
+  private static String error(String ndjson) throws IOException {
+    Snapshot.Lines lines = lines(ndjson, 10);
+    return assertThrows(IllegalArgumentException.class, lines::next).getMessage();
+  }
+
+  private static String invalid(String ndjson) throws IOException {
+    Snapshot.Lines lines = lines(ndjson, 10);
+    Exception e = assertThrows(IllegalArgumentException.class, lines::next);
+    assertThat(e, instanceOf(Snapshot.InvalidLineException.class));
+    return e.getMessage();
+  }
+
+  @Test
+  public void invalid() throws IOException {
+    assertThat(error(A + "\n[1]"), is("Line 2: not a JSON object"));
+    assertThat(error(A + "\n\n{"), is("Line 3: not a JSON object"));
+    assertThat(invalid("{\"module\":\"A\",\"configName\":\"a\"}"), is("Line 1: id is not a UUID"));
+    assertThat(invalid("{\"id\":1,\"module\":\"A\",\"configName\":\"a\"}"), is("Line 1: id is not a UUID"));
+    assertThat(invalid(A + "\n" + A), is("Line 2: duplicate id " + A_ID));
+    assertThat(invalid(A + "\n{\"id\":\"" + B_ID + "\",\"module\":\"B\"}"), startsWith("Line 2: configName "));
+    assertThat(invalid(A + "\n{\"id\":\"" + B_ID + "\",\"module\":\"B\",\"configName\":\"b\",\"foo\":1}"),
+        startsWith("Line 2: "));
+    assertThat(invalid("{\"id\":\"" + B_ID + "\",\"module\":\"B\",\"configName\":\"b\",\"enabled\":\"x\"}"),
+        startsWith("Line 1: "));
+  }
+}
@@ -0,0 +1,26 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.vertx.core.json.JsonArray;
+import org.junit.Test;
+
+public class TotalRecordsTest {
+
+  @Test
+  public void planRows() {
+    String explain = "[{\"Plan\": {\"Node Type\": \"Seq Scan\", \"Plan Rows\": 1234, \"Plan Width\": 4}}]";
+    assertThat(TotalRecords.planRows(explain), is(1234));
+    assertThat(TotalRecords.planRows(new JsonArray(explain)), is(1234));
+    assertThat(TotalRecords.planRows("[{\"Plan\": {\"Plan Rows\": 1e12}}]"), is(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void none() {
+    assertThat(TotalRecords.count(TotalRecords.NONE, " FROM t", sql -> {
+      throw new AssertionError(sql);
+    }).result(), is(nullValue()));
+  }
+}
@@ -0,0 +1,33 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class ValueJsonConditionTest {
+
+  private static final String LIKE = "lower(f_unaccent(jsonb->>'valueJson')) LIKE ";
+
+  @Test
+  public void noCondition() {
+    assertThat(ValueJsonCondition.sqlCondition(null), is(nullValue()));
+    assertThat(ValueJsonCondition.sqlCondition("module==CIRCULATION"), is(nullValue()));
+    assertThat(ValueJsonCondition.sqlCondition("valueJson.a==ab"), is(nullValue()));
+    assertThat(ValueJsonCondition.sqlCondition("valueJson.a==abc*"), is(nullValue()));
+    assertThat(ValueJsonCondition.sqlCondition("valueJson.a<abc"), is(nullValue()));
+    assertThat(ValueJsonCondition.sqlCondition("valueJson.a==abc or module==X"), is(nullValue()));
+    assertThat(ValueJsonCondition.sqlCondition("(("), is(nullValue()));
+  }
+
+  @Test
+  public void condition() {
+    assertThat(ValueJsonCondition.sqlCondition("module==X and valueJson.a.b==\"it's 100%\" sortBy code"),
+        is(LIKE + "lower(f_unaccent('%it''s 100\\%%'))"));
+    assertThat(ValueJsonCondition.sqlCondition("valueJson.a=\"foo_bar baz\" and valueJson.n==123"),
+        is(LIKE + "lower(f_unaccent('%foo\\_bar%')) AND "
+            + LIKE + "lower(f_unaccent('%baz%')) AND "
+            + LIKE + "lower(f_unaccent('%123%'))"));
+  }
+}
@@ -0,0 +1,63 @@
+package org.folio.config;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+  private static final Vertx vertx = Vertx.vertx();
+  private final VirtualThreads virtualThreads = new VirtualThreads(true, Executors.newVirtualThreadPerTaskExecutor());
+
+  @AfterClass
+  public static void close() {
+    vertx.close();
+  }
+
+  private <T> AsyncResult<T> run(Callable<T> request) throws Exception {
+    Context context = vertx.getOrCreateContext();
+    CompletableFuture<AsyncResult<T>> result = new CompletableFuture<>();
+    context.runOnContext(x -> virtualThreads.run(context, request, reply -> {
+      assertThat(Vertx.currentContext(), is(context));
+      result.complete(reply);
+    }));
+    return result.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void await() throws Exception {
+    AsyncResult<String> reply = run(() -> {
+      assertThat(Thread.currentThread().isVirtual(), is(true));
+      String a = VirtualThreads.await(vertx.timer(10, TimeUnit.MILLISECONDS).map("a"));
+      return a + VirtualThreads.await(Future.succeededFuture("b"));
+    });
+    assertThat(reply.result(), is("ab"));
+  }
+
+  @Test
+  public void awaitFailure() throws Exception {
+    AsyncResult<String> reply = run(() -> VirtualThreads.await(vertx.timer(10, TimeUnit.MILLISECONDS)
+        .compose(x -> Future.<String>failedFuture(new IllegalArgumentException("foo")))));
+    assertThat(reply.cause(), instanceOf(IllegalArgumentException.class));
+    assertThat(reply.cause().getMessage(), is("foo"));
+  }
+
+  @Test
+  public void awaitOnVertxThread() throws Exception {
+    CompletableFuture<Exception> result = new CompletableFuture<>();
+    vertx.runOnContext(x -> result.complete(
+        assertThrows(IllegalStateException.class, () -> VirtualThreads.await(Future.succeededFuture()))));
+    assertThat(result.get(5, TimeUnit.SECONDS), instanceOf(IllegalStateException.class));
+  }
+}
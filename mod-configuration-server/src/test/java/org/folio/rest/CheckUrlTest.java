@@ -139,6 +139,11 @@ public class CheckUrlTest extends TestBase {
     checkUrl(context, "/configurations/entries?query=code=config_data*%20sortBy%20code/sort.descending&facets=code:3&facets=module", 200, 1);
   }
 
+  @Test
+  public void allRecordsFacets(TestContext context) {
+    checkUrl(context, "/configurations/entries?query=cql.allRecords%3D1&facets=code:2&facets=module:1", 200, 4);
+  }
+
   @Test
   public void code1(TestContext context) {
     checkUrl(context, "/configurations/entries?facets=code1&facets=module", 200 , 4);
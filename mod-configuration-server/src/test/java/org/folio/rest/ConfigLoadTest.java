@@ -0,0 +1,351 @@
+package org.folio.rest;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.config.VirtualThreads;
+import org.folio.rest.client.TenantClient;
+import org.folio.rest.jaxrs.model.TenantAttributes;
+import org.folio.rest.tools.utils.TenantInit;
+import org.folio.support.OkapiHttpClient;
+import org.folio.support.Response;
+import org.folio.support.builders.ConfigurationRecordBuilder;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Load test: seeds tenants × entries and sends a mix of GET, POST, PUT and DELETE requests
+ * at a fixed rate, then reports p50/p99 latency and throughput per endpoint.
+ *
+ * <p>Excluded from the normal build, run it with
+ * <pre>mvn test -pl mod-configuration-server -Dtest=ConfigLoadTest -Dload.rate=500</pre>
+ * Parameters (system properties): load.tenants, load.entries (per tenant), load.rate (requests per second),
+ * load.seconds, load.maxInFlight. The result is logged and written to target/load-test-result.json.
+ *
+ * <p>To compare the event loop handlers with the virtual thread handlers under the same load run it
+ * a second time with -DCONFIG_VIRTUAL_THREADS=true, that result is written to
+ * target/load-test-result-virtual-threads.json.
+ *
+ * <p>The latency of a request is measured from the time it was scheduled, not sent, so that a slow
+ * server doesn't hide its latency by reducing the rate (coordinated omission). Requests that would
+ * exceed load.maxInFlight are not sent and counted as dropped.
+ */
+@RunWith(VertxUnitRunner.class)
+public class ConfigLoadTest extends TestBase {
+
+  private static final Logger log = LogManager.getLogger(ConfigLoadTest.class);
+
+  private static final String USER_ID = "79ff2a8b-d9c3-5b39-ad4a-0a84025ab085";
+  private static final int TENANTS = Integer.getInteger("load.tenants", 3);
+  private static final int ENTRIES = Integer.getInteger("load.entries", 1000);
+  private static final int RATE = Integer.getInteger("load.rate", 200);
+  private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+  private static final int MAX_IN_FLIGHT = Integer.getInteger("load.maxInFlight", 256);
+  private static final int TICK_MS = 10;
+  private static final String RESULT_FILE = VirtualThreads.getInstance().isEnabled()
+      ? "target/load-test-result-virtual-threads.json" : "target/load-test-result.json";
+
+  private static final Vertx vertx = Vertx.vertx();
+  private static final List<LoadTenant> tenants = new ArrayList<>();
+
+  @BeforeClass
+  public static void seed(TestContext context) {
+    Future<Void> future = Future.succeededFuture();
+    for (int i = 0; i < TENANTS; i++) {
+      LoadTenant tenant = new LoadTenant(i == 0 ? TENANT_ID : "loadtest" + i);
+      tenants.add(tenant);
+      if (i > 0) {
+        future = future.compose(x -> dropSchema(tenant.schema())).compose(x -> postTenant(tenant.id));
+      }
+      future = future.compose(x -> tenant.seed());
+    }
+    future.onComplete(context.asyncAssertSuccess());
+  }
+
+  @AfterClass
+  public static void dropTenants(TestContext context) {
+    Future<Void> future = Future.succeededFuture();
+    for (LoadTenant tenant : tenants.subList(1, tenants.size())) {
+      future = future.compose(x -> dropSchema(tenant.schema()));
+    }
+    future.onComplete(context.asyncAssertSuccess());
+  }
+
+  private static Future<Void> postTenant(String tenantId) {
+    try {
+      TenantAttributes ta = new TenantAttributes().withModuleTo("mod-configuration-1.0.0");
+      return TenantInit.exec(new TenantClient("http://localhost:" + port, tenantId, null, webClient), ta, 60000);
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+  }
+
+  @Test
+  public void load(TestContext context) throws Exception {
+    Map<String, Stats> stats = new TreeMap<>();
+    for (Operation operation : Operation.values()) {
+      stats.put(operation.endpoint, new Stats());
+    }
+    AtomicInteger inFlight = new AtomicInteger();
+    Promise<Void> done = Promise.promise();
+    long start = System.nanoTime();
+    long end = start + TimeUnit.SECONDS.toNanos(SECONDS);
+    long[] scheduled = {0};
+    vertx.setPeriodic(TICK_MS, timer -> {
+      long now = System.nanoTime();
+      // send all requests that are due, with the time they were due
+      long due = Math.min(now, end) - start;
+      long total = due * RATE / TimeUnit.SECONDS.toNanos(1);
+      while (scheduled[0] < total) {
+        long dueTime = start + scheduled[0] * TimeUnit.SECONDS.toNanos(1) / RATE;
+        scheduled[0]++;
+        Operation operation = Operation.random();
+        Stats operationStats = stats.get(operation.endpoint);
+        if (inFlight.get() >= MAX_IN_FLIGHT) {
+          operationStats.dropped();
+          continue;
+        }
+        inFlight.incrementAndGet();
+        LoadTenant tenant = tenants.get(ThreadLocalRandom.current().nextInt(tenants.size()));
+        operation.send(tenant).whenComplete((response, e) -> {
+          inFlight.decrementAndGet();
+          operationStats.add(System.nanoTime() - dueTime, e == null ? response.getStatusCode() : 599);
+        });
+      }
+      if (now >= end && inFlight.get() == 0) {
+        vertx.cancelTimer(timer);
+        done.complete();
+      }
+    });
+    done.future().toCompletionStage().toCompletableFuture().get(SECONDS + 120L, TimeUnit.SECONDS);
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    JsonObject result = new JsonObject()
+        .put("tenants", TENANTS)
+        .put("entriesPerTenant", ENTRIES)
+        .put("targetRate", RATE)
+        .put("virtualThreads", VirtualThreads.getInstance().isEnabled())
+        .put("seconds", seconds);
+    JsonObject endpoints = new JsonObject();
+    stats.forEach((name, s) -> endpoints.put(name, s.toJson(seconds)));
+    result.put("endpoints", endpoints);
+    log.info("Load test result:\n{}", result.encodePrettily());
+    Files.writeString(Path.of(RESULT_FILE), result.encodePrettily());
+
+    stats.forEach((name, s) -> context.assertEquals(0, s.serverErrors, name + " server errors"));
+  }
+
+  /**
+   * A tenant with its seeded entries.
+   */
+  private static class LoadTenant {
+    private final String id;
+    private final OkapiHttpClient client;
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> created = new ArrayList<>();
+    private final AtomicInteger counter = new AtomicInteger();
+
+    LoadTenant(String id) {
+      this.id = id;
+      this.client = new OkapiHttpClient(vertx, id, USER_ID, MAX_IN_FLIGHT);
+    }
+
+    String schema() {
+      return id + "_mod_configuration";
+    }
+
+    String url(String path) {
+      return "http://localhost:" + port + "/configurations/entries" + path;
+    }
+
+    static JsonObject entry(UUID id, int i, String value) {
+      return new ConfigurationRecordBuilder()
+          .withId(id)
+          .withModuleName("LOAD" + (i % 10))
+          .withConfigName("config" + (i / 10 % 10))
+          .withCode("code" + i)
+          .withValue(value)
+          .create();
+    }
+
+    Future<Void> seed() {
+      Future<Void> future = Future.succeededFuture();
+      for (int from = 0; from < ENTRIES; from += 1000) {
+        JsonArray configs = new JsonArray();
+        for (int i = from; i < Math.min(from + 1000, ENTRIES); i++) {
+          UUID uuid = UUID.randomUUID();
+          ids.add(uuid.toString());
+          configs.add(entry(uuid, i, "seed"));
+        }
+        future = future.compose(x -> Future.fromCompletionStage(
+            client.post(url("/batch"), new JsonObject().put("configs", configs).encode())))
+            .compose(response -> response.getStatusCode() == 200
+                ? Future.succeededFuture()
+                : Future.failedFuture("Seeding " + id + " failed: " + response.getBody()));
+      }
+      return future;
+    }
+
+    String randomId() {
+      return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    int randomIndex() {
+      return ThreadLocalRandom.current().nextInt(ENTRIES);
+    }
+  }
+
+  /**
+   * The request types and their share of the traffic in percent.
+   */
+  private enum Operation {
+    GET_BY_ID("GET /configurations/entries/{id}", 30) {
+      @Override
+      CompletableFuture<Response> send(LoadTenant tenant) {
+        return tenant.client.get(tenant.url("/" + tenant.randomId()));
+      }
+    },
+    GET_BY_KEY("GET /configurations/entries?query=module==A and configName==B and code==C", 30) {
+      @Override
+      CompletableFuture<Response> send(LoadTenant tenant) {
+        int i = tenant.randomIndex();
+        return tenant.client.get(tenant.url("?query=module%3D%3DLOAD" + (i % 10)
+            + "%20and%20configName%3D%3Dconfig" + (i / 10 % 10) + "%20and%20code%3D%3Dcode" + i));
+      }
+    },
+    GET_BY_MODULE("GET /configurations/entries?query=module==A", 20) {
+      @Override
+      CompletableFuture<Response> send(LoadTenant tenant) {
+        return tenant.client.get(tenant.url("?limit=10&query=module%3D%3DLOAD" + (tenant.randomIndex() % 10)));
+      }
+    },
+    POST("POST /configurations/entries", 8) {
+      @Override
+      CompletableFuture<Response> send(LoadTenant tenant) {
+        int i = ENTRIES + tenant.counter.incrementAndGet();
+        UUID id = UUID.randomUUID();
+        return tenant.client.post(tenant.url(""), LoadTenant.entry(id, i, "post").encode())
+            .thenApply(response -> {
+              if (response.getStatusCode() == 201) {
+                synchronized (tenant.created) {
+                  tenant.created.add(id.toString());
+                }
+              }
+              return response;
+            });
+      }
+    },
+    PUT("PUT /configurations/entries/{id}", 8) {
+      @Override
+      CompletableFuture<Response> send(LoadTenant tenant) {
+        int i = tenant.randomIndex();
+        String id = tenant.ids.get(i);
+        return tenant.client.put(tenant.url("/" + id),
+            LoadTenant.entry(UUID.fromString(id), i, "put" + System.nanoTime()).encode());
+      }
+    },
+    DELETE("DELETE /configurations/entries/{id}", 4) {
+      @Override
+      CompletableFuture<Response> send(LoadTenant tenant) {
+        String id;
+        synchronized (tenant.created) {
+          if (tenant.created.isEmpty()) {
+            return GET_BY_ID.send(tenant);
+          }
+          id = tenant.created.remove(tenant.created.size() - 1);
+        }
+        return tenant.client.delete(tenant.url("/" + id));
+      }
+    };
+
+    private final String endpoint;
+    private final int percent;
+
+    Operation(String endpoint, int percent) {
+      this.endpoint = endpoint;
+      this.percent = percent;
+    }
+
+    abstract CompletableFuture<Response> send(LoadTenant tenant);
+
+    static Operation random() {
+      int n = ThreadLocalRandom.current().nextInt(100);
+      for (Operation operation : values()) {
+        n -= operation.percent;
+        if (n < 0) {
+          return operation;
+        }
+      }
+      return GET_BY_ID;
+    }
+  }
+
+  /**
+   * Latencies and status codes of an endpoint.
+   */
+  private static class Stats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int dropped;
+    private int serverErrors;
+    private final Map<Integer, Integer> statusCodes = new TreeMap<>();
+
+    synchronized void add(long latencyNanos, int statusCode) {
+      if (count == latencies.length) {
+        latencies = Arrays.copyOf(latencies, 2 * count);
+      }
+      latencies[count++] = latencyNanos;
+      statusCodes.merge(statusCode, 1, Integer::sum);
+      if (statusCode >= 500) {
+        serverErrors++;
+      }
+    }
+
+    synchronized void dropped() {
+      dropped++;
+    }
+
+    synchronized JsonObject toJson(double seconds) {
+      long[] sorted = Arrays.copyOf(latencies, count);
+      Arrays.sort(sorted);
+      JsonObject codes = new JsonObject();
+      statusCodes.forEach((code, n) -> codes.put(code.toString(), n));
+      return new JsonObject()
+          .put("requests", count)
+          .put("dropped", dropped)
+          .put("throughputPerSecond", count / seconds)
+          .put("p50Millis", percentile(sorted, 50))
+          .put("p99Millis", percentile(sorted, 99))
+          .put("maxMillis", count == 0 ? 0 : sorted[count - 1] / 1e6)
+          .put("statusCodes", codes);
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+      int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+      return sorted[Math.max(index, 0)] / 1e6;
+    }
+  }
+}
@@ -2,29 +2,49 @@ package org.folio.rest;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.pgclient.PgConnection;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.config.AdmissionControl;
+import org.folio.config.AuditRetention;
+import org.folio.config.AuditWriteBehind;
+import org.folio.config.ConfigCache;
+import org.folio.config.ReadRouting;
+import org.folio.config.SingleFlight;
+import org.folio.config.VirtualThreads;
 import org.folio.rest.jaxrs.model.Parameter;
 import org.folio.rest.jaxrs.model.TenantAttributes;
 import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.tools.utils.NetworkUtils;
 import org.folio.rest.tools.utils.TenantInit;
 import org.folio.support.ConfigurationRecordExamples;
 import org.folio.support.OkapiHttpClient;
@@ -1276,6 +1296,743 @@ public class RestVerticleTest extends TestBase {
       });
   }
 
+  @Test
+  public void canGetByModuleConfigNameAndCode(TestContext testContext) {
+    final ConfigurationRecordBuilder baselineSetting = new ConfigurationRecordBuilder()
+      .withModuleName("CHECKOUT")
+      .withConfigName("main_settings")
+      .withCode("example_setting")
+      .withValue("some value");
+
+    assertCreateConfigRecord(baselineSetting.create());
+    assertCreateConfigRecord(baselineSetting.withValue("disabled value").disabled().create());
+    assertCreateConfigRecord(baselineSetting.withValue("user value").forUser(UUID.randomUUID()).create());
+    assertCreateConfigRecord(baselineSetting.withCode("other_setting").create());
+
+    JsonObject json = getByCql("module==CHECKOUT and configName==main_settings and code==example_setting");
+    testContext.assertEquals(3, json.getInteger("totalRecords"));
+    testContext.assertEquals(3, json.getJsonArray("configs").size());
+
+    json = getByCql("code==EXAMPLE_SETTING and module==checkout and configName==\"main_settings\"");
+    testContext.assertEquals(3, json.getInteger("totalRecords"));
+
+    json = getByCql("module==CHECKOUT and configName==main_settings and code==unknown");
+    testContext.assertEquals(0, json.getInteger("totalRecords"));
+  }
+
+  @Test
+  public void canUpsertBatch(TestContext testContext) throws Exception {
+    final ConfigurationRecordBuilder baselineSetting = new ConfigurationRecordBuilder()
+      .withModuleName("CHECKOUT")
+      .withConfigName("main_settings")
+      .withValue("some value");
+
+    assertCreateConfigRecord(baselineSetting.withCode("existing").create());
+
+    JsonArray configs = new JsonArray()
+      .add(baselineSetting.withCode("first").create())
+      .add(baselineSetting.withCode("existing").create())
+      .add(baselineSetting.withCode("second").create());
+
+    Response response = okapiHttpClient.post("http://localhost:" + port + "/configurations/entries/batch",
+      new JsonObject().put("configs", configs).encode()).get(5, TimeUnit.SECONDS);
+
+    testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    JsonArray results = response.getBodyAsJson().getJsonArray("results");
+    testContext.assertEquals(201, results.getJsonObject(0).getInteger("status"));
+    testContext.assertEquals(422, results.getJsonObject(1).getInteger("status"));
+    testContext.assertEquals(201, results.getJsonObject(2).getInteger("status"));
+    testContext.assertEquals(3, getByCql("module==CHECKOUT").getInteger("totalRecords"));
+
+    JsonObject update = configs.getJsonObject(0).copy()
+      .put("id", results.getJsonObject(0).getString("id"))
+      .put("value", "new value");
+
+    response = okapiHttpClient.post("http://localhost:" + port + "/configurations/entries/batch",
+      new JsonObject().put("configs", new JsonArray().add(update)).encode()).get(5, TimeUnit.SECONDS);
+
+    testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    testContext.assertEquals(200, response.getBodyAsJson().getJsonArray("results").getJsonObject(0).getInteger("status"));
+    testContext.assertEquals("new value", getByCql("code==first").getJsonArray("configs").getJsonObject(0).getString("value"));
+  }
+
+  @Test
+  public void canUpsertSameIdRepeatedly(TestContext testContext) throws Exception {
+    JsonObject config = new ConfigurationRecordBuilder()
+      .withModuleName("REPEAT")
+      .withConfigName("main_settings")
+      .withCode("repeat")
+      .withValue("some value")
+      .create()
+      .put("id", UUID.randomUUID().toString());
+    String batchUrl = "http://localhost:" + port + "/configurations/entries/batch";
+    String batch = new JsonObject().put("configs", new JsonArray().add(config)).encode();
+
+    int [] expected = { 201, 200, 200 };
+    for (int i = 0; i < expected.length; i++) {
+      Response response = okapiHttpClient.post(batchUrl, batch).get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+      testContext.assertEquals(expected[i],
+          response.getBodyAsJson().getJsonArray("results").getJsonObject(0).getInteger("status"));
+      testContext.assertEquals(i + 1,
+          getByCql("module==REPEAT").getJsonArray("configs").getJsonObject(0).getInteger("_version"));
+    }
+
+    String snapshotUrl = "http://localhost:" + port + "/configurations/snapshot";
+    byte [] snapshot = (config.encode() + "\n").getBytes(StandardCharsets.UTF_8);
+    for (int i = 0; i < 3; i++) {
+      Response response = okapiHttpClient.postBinary(snapshotUrl, snapshot).get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+      testContext.assertEquals(expected.length + i + 1,
+          getByCql("module==REPEAT").getJsonArray("configs").getJsonObject(0).getInteger("_version"));
+    }
+
+    // a stale _version still fails
+    String stale = new JsonObject().put("configs", new JsonArray().add(config.copy().put("_version", 1))).encode();
+    Response response = okapiHttpClient.post(batchUrl, stale).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    testContext.assertEquals(409, response.getBodyAsJson().getJsonArray("results").getJsonObject(0).getInteger("status"));
+
+    String current = new JsonObject().put("configs", new JsonArray()
+        .add(config.copy().put("_version", expected.length + 3))).encode();
+    response = okapiHttpClient.post(batchUrl, current).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, response.getBodyAsJson().getJsonArray("results").getJsonObject(0).getInteger("status"));
+    testContext.assertEquals(expected.length + 4,
+        getByCql("module==REPEAT").getJsonArray("configs").getJsonObject(0).getInteger("_version"));
+
+    // a new entry starts with _version 1 whatever the request has
+    String created = new JsonObject().put("configs", new JsonArray().add(config.copy()
+        .put("id", UUID.randomUUID().toString()).put("code", "created").put("_version", 7))).encode();
+    response = okapiHttpClient.post(batchUrl, created).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(201, response.getBodyAsJson().getJsonArray("results").getJsonObject(0).getInteger("status"));
+    testContext.assertEquals(1,
+        getByCql("code==created").getJsonArray("configs").getJsonObject(0).getInteger("_version"));
+  }
+
+  @Test
+  public void canLookupKeys(TestContext testContext) throws Exception {
+    String userId = UUID.randomUUID().toString();
+    final ConfigurationRecordBuilder locale = new ConfigurationRecordBuilder()
+      .withModuleName("LOOKUP")
+      .withConfigName("locale");
+
+    assertCreateConfigRecord(locale.withNoCode().withValue("tenant").create());
+    assertCreateConfigRecord(locale.withCode("timezone").withValue("UTC").create());
+    assertCreateConfigRecord(locale.withCode("timezone").withValue("user").create().put("userId", userId));
+
+    JsonArray keys = new JsonArray()
+      .add(new JsonObject().put("module", "lookup").put("configName", "LOCALE"))
+      .add(new JsonObject().put("module", "LOOKUP").put("configName", "locale").put("code", "timezone"))
+      .add(new JsonObject().put("module", "LOOKUP").put("configName", "locale").put("code", "timezone")
+        .put("userId", userId))
+      .add(new JsonObject().put("module", "LOOKUP").put("configName", "locale").put("code", "unknown"));
+    Response response = okapiHttpClient.post("http://localhost:" + port + "/configurations/entries/lookup",
+      new JsonObject().put("keys", keys).encode()).get(5, TimeUnit.SECONDS);
+
+    testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    JsonObject json = response.getBodyAsJson();
+    JsonArray results = json.getJsonArray("results");
+    testContext.assertEquals(3, json.getInteger("totalRecords"));
+    testContext.assertEquals(4, results.size());
+    testContext.assertEquals("tenant", results.getJsonObject(0).getJsonObject("config").getString("value"));
+    testContext.assertEquals("UTC", results.getJsonObject(1).getJsonObject("config").getString("value"));
+    testContext.assertEquals("user", results.getJsonObject(2).getJsonObject("config").getString("value"));
+    testContext.assertEquals("unknown", results.getJsonObject(3).getString("code"));
+    testContext.assertNull(results.getJsonObject(3).getJsonObject("config"));
+  }
+
+  @Test
+  public void canGetEffective(TestContext testContext) throws Exception {
+    String userId = UUID.randomUUID().toString();
+    String otherUserId = UUID.randomUUID().toString();
+    final ConfigurationRecordBuilder timezone = new ConfigurationRecordBuilder()
+      .withModuleName("EFFECTIVE")
+      .withConfigName("locale")
+      .withCode("timezone");
+
+    String url = "http://localhost:" + port + "/configurations/effective?module=EFFECTIVE&configName=locale&code=timezone";
+    testContext.assertEquals(404, okapiHttpClient.get(url).get(5, TimeUnit.SECONDS).getStatusCode());
+
+    assertCreateConfigRecord(timezone.withValue("UTC").create());
+    assertCreateConfigRecord(timezone.withValue("Europe/Berlin").create().put("userId", userId));
+
+    Response tenant = okapiHttpClient.get(url).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, tenant.getStatusCode(), tenant.getBody());
+    testContext.assertEquals("UTC", tenant.getBodyAsJson().getString("value"));
+    testContext.assertEquals("Europe/Berlin", okapiHttpClient.get(url + "&userId=" + userId).get(5, TimeUnit.SECONDS)
+      .getBodyAsJson().getString("value"));
+    Response other = okapiHttpClient.get(url + "&userId=" + otherUserId).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals("UTC", other.getBodyAsJson().getString("value"));
+
+    testContext.assertEquals(304, okapiHttpClient.getIfNoneMatch(url + "&userId=" + otherUserId, other.getHeader("ETag"))
+      .get(5, TimeUnit.SECONDS).getStatusCode());
+  }
+
+  @Test
+  public void canQueryValueJson(TestContext testContext) throws Exception {
+    final ConfigurationRecordBuilder loans = new ConfigurationRecordBuilder()
+      .withModuleName("VALUEJSON")
+      .withConfigName("loans");
+
+    JsonObject created = assertCreateConfigRecord(loans.withCode("short")
+      .withValue("{\"loanPeriod\": {\"unit\": \"Days\", \"duration\": 7}}").create());
+    testContext.assertEquals("Days", created.getJsonObject("valueJson").getJsonObject("loanPeriod").getString("unit"));
+    assertCreateConfigRecord(loans.withCode("long")
+      .withValue("{\"loanPeriod\": {\"unit\": \"Weeks\", \"duration\": 3}}").create());
+    assertCreateConfigRecord(loans.withCode("plain").withValue("Weeks").create());
+
+    JsonObject json = getByCql("module==VALUEJSON and valueJson.loanPeriod.unit==weeks");
+    testContext.assertEquals(1, json.getInteger("totalRecords"));
+    testContext.assertEquals("long", json.getJsonArray("configs").getJsonObject(0).getString("code"));
+    testContext.assertNull(getByCql("module==VALUEJSON and code==plain").getJsonArray("configs").getJsonObject(0).getJsonObject("valueJson"));
+  }
+
+  @Test
+  public void canProjectFields(TestContext testContext) throws Exception {
+    assertCreateConfigRecord(new ConfigurationRecordBuilder()
+      .withModuleName("PROJECTION").withConfigName("fields").withCode("a").withValue("x")
+      .withDescription("not returned").create());
+
+    String url = "http://localhost:" + port + "/configurations/entries?query=module%3D%3DPROJECTION";
+    Response response = okapiHttpClient.get(url + "&fields=code,value").get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    JsonObject json = response.getBodyAsJson();
+    testContext.assertEquals(1, json.getInteger("totalRecords"));
+    testContext.assertEquals(new JsonObject().put("code", "a").put("value", "x"),
+      json.getJsonArray("configs").getJsonObject(0));
+
+    JsonObject page = okapiHttpClient.get(url + "&fields=id&cursor=start").get(5, TimeUnit.SECONDS).getBodyAsJson();
+    testContext.assertEquals(1, page.getJsonArray("configs").getJsonObject(0).size());
+
+    testContext.assertEquals(400, okapiHttpClient.get(url + "&fields=foo").get(5, TimeUnit.SECONDS).getStatusCode());
+    testContext.assertEquals(400, okapiHttpClient.get(url + "&fields=code&facets=code").get(5, TimeUnit.SECONDS)
+      .getStatusCode());
+
+    JsonObject audits = okapiHttpClient.get("http://localhost:" + port + "/configurations/audit?fields=operation")
+      .get(5, TimeUnit.SECONDS).getBodyAsJson();
+    testContext.assertTrue(audits.getInteger("totalRecords") > 0);
+    testContext.assertEquals(1, audits.getJsonArray("audits").getJsonObject(0).size());
+  }
+
+  @Test
+  public void canChooseTotalRecords(TestContext testContext) throws Exception {
+    assertCreateConfigRecord(new ConfigurationRecordBuilder()
+      .withModuleName("TOTAL").withConfigName("total").withCode("a").withValue("x").create());
+
+    String url = "http://localhost:" + port + "/configurations/entries?query=module%3D%3DTOTAL%20sortBy%20code";
+    JsonObject exact = okapiHttpClient.get(url + "&totalRecords=exact").get(5, TimeUnit.SECONDS).getBodyAsJson();
+    testContext.assertEquals(1, exact.getInteger("totalRecords"));
+    JsonObject none = okapiHttpClient.get(url + "&totalRecords=none").get(5, TimeUnit.SECONDS).getBodyAsJson();
+    testContext.assertFalse(none.containsKey("totalRecords"));
+    testContext.assertEquals(1, none.getJsonArray("configs").size());
+    JsonObject estimated = okapiHttpClient.get(url + "&totalRecords=estimated").get(5, TimeUnit.SECONDS)
+      .getBodyAsJson();
+    testContext.assertTrue(estimated.getInteger("totalRecords") >= 0);
+    testContext.assertEquals(400, okapiHttpClient.get(url + "&totalRecords=foo").get(5, TimeUnit.SECONDS)
+      .getStatusCode());
+
+    JsonObject audits = okapiHttpClient.get("http://localhost:" + port + "/configurations/audit?totalRecords=none")
+      .get(5, TimeUnit.SECONDS).getBodyAsJson();
+    testContext.assertFalse(audits.containsKey("totalRecords"));
+    testContext.assertTrue(audits.getJsonArray("audits").size() > 0);
+  }
+
+  @Test
+  public void canGetGzip(TestContext testContext) throws Exception {
+    JsonArray configs = new JsonArray();
+    for (int i = 0; i < 250; i++) {
+      configs.add(new ConfigurationRecordBuilder().withModuleName("GZIP").withConfigName("gzip")
+        .withCode("code" + i).withValue("value " + i).create());
+    }
+    Response batch = okapiHttpClient.post("http://localhost:" + port + "/configurations/entries/batch",
+      new JsonObject().put("configs", configs).encode()).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, batch.getStatusCode(), batch.getBody());
+
+    String url = "http://localhost:" + port + "/configurations/entries?limit=1000&query=module%3D%3DGZIP";
+    Response response = okapiHttpClient.getGzip(url).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    testContext.assertEquals("gzip", response.getHeader("Content-Encoding"));
+    JsonObject json = response.getBodyAsJson();
+    testContext.assertEquals(250, json.getInteger("totalRecords"));
+    testContext.assertEquals(250, json.getJsonArray("configs").size());
+    // same as the uncompressed PgUtil.streamGet response
+    JsonObject plain = okapiHttpClient.get(url).get(5, TimeUnit.SECONDS).getBodyAsJson();
+    testContext.assertEquals(plain.getInteger("totalRecords"), json.getInteger("totalRecords"));
+    testContext.assertEquals(plain.getJsonObject("resultInfo"), json.getJsonObject("resultInfo"));
+
+    response = okapiHttpClient.getGzip(url + "&fields=code").get(5, TimeUnit.SECONDS);
+    testContext.assertEquals("gzip", response.getHeader("Content-Encoding"));
+    testContext.assertEquals(250, response.getBodyAsJson().getJsonArray("configs").size());
+
+    response = okapiHttpClient.getGzip(url + "%20and%20(").get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(400, response.getStatusCode(), response.getBody());
+    testContext.assertNull(response.getHeader("Content-Encoding"));
+  }
+
+  @Test
+  public void canGetChanges(TestContext testContext) throws Exception {
+    String now = getChanges("?since=now").getString("nextToken");
+
+    JsonObject created = assertCreateConfigRecord(ConfigurationRecordExamples.audioAlertsExample().create());
+    okapiHttpClient.put("http://localhost:" + port + "/configurations/entries/" + created.getString("id"),
+      created.copy().put("value", "false").encode()).get(5, TimeUnit.SECONDS);
+
+    JsonObject changes = getChanges("?since=" + now);
+    testContext.assertEquals(2, changes.getInteger("totalRecords"));
+    testContext.assertEquals("I", changes.getJsonArray("changes").getJsonObject(0).getString("operation"));
+    testContext.assertEquals("U", changes.getJsonArray("changes").getJsonObject(1).getString("operation"));
+    testContext.assertEquals(created.getString("id"), changes.getJsonArray("changes").getJsonObject(1).getString("id"));
+    testContext.assertEquals("false",
+      changes.getJsonArray("changes").getJsonObject(1).getJsonObject("config").getString("value"));
+
+    JsonObject first = getChanges("?limit=1&since=" + now);
+    testContext.assertEquals(1, first.getInteger("totalRecords"));
+    JsonObject rest = getChanges("?since=" + first.getString("nextToken"));
+    testContext.assertEquals(1, rest.getInteger("totalRecords"));
+    testContext.assertEquals(changes.getString("nextToken"), rest.getString("nextToken"));
+
+    testContext.assertEquals(0, getChanges("?since=" + rest.getString("nextToken")).getInteger("totalRecords"));
+
+    Response response = okapiHttpClient.get("http://localhost:" + port + "/configurations/changes?since=foo")
+      .get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(400, response.getStatusCode());
+  }
+
+  @Test
+  public void canPageWithCursor(TestContext testContext) throws Exception {
+    for (String code : new String[] {"c1", "c2", "c3"}) {
+      assertCreateConfigRecord(new ConfigurationRecordBuilder()
+        .withModuleName("CURSOR").withConfigName("cursor").withCode(code).withValue(code).create());
+    }
+    Set<String> ids = new HashSet<>();
+    String cursor = "start";
+    int pages = 0;
+    do {
+      Response response = okapiHttpClient.get("http://localhost:" + port
+          + "/configurations/entries?query=module%3D%3DCURSOR&limit=2&cursor=" + cursor).get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+      JsonObject page = response.getBodyAsJson();
+      testContext.assertNull(page.getInteger("totalRecords"));
+      page.getJsonArray("configs").forEach(config -> ids.add(((JsonObject) config).getString("id")));
+      cursor = page.getString("nextCursor");
+      pages++;
+    } while (cursor != null);
+    testContext.assertEquals(3, ids.size());
+    testContext.assertEquals(2, pages);
+
+    Response audit = okapiHttpClient.get("http://localhost:" + port
+        + "/configurations/audit?query=config_data.module%3D%3DCURSOR&limit=10&cursor=start").get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, audit.getStatusCode(), audit.getBody());
+    testContext.assertEquals(3, audit.getBodyAsJson().getJsonArray("audits").size());
+    testContext.assertNull(audit.getBodyAsJson().getString("nextCursor"));
+
+    testContext.assertEquals(400, okapiHttpClient.get("http://localhost:" + port
+        + "/configurations/entries?cursor=foo").get(5, TimeUnit.SECONDS).getStatusCode());
+    testContext.assertEquals(400, okapiHttpClient.get("http://localhost:" + port
+        + "/configurations/entries?cursor=start&offset=1").get(5, TimeUnit.SECONDS).getStatusCode());
+    testContext.assertEquals(400, okapiHttpClient.get("http://localhost:" + port
+        + "/configurations/audit?cursor=start&query=cql.allRecords%3D1%20sortBy%20id").get(5, TimeUnit.SECONDS)
+        .getStatusCode());
+  }
+
+  @Test
+  public void canGetAuditByCreatedDate(TestContext testContext) throws Exception {
+    assertCreateConfigRecord(new ConfigurationRecordBuilder()
+      .withModuleName("AUDITDATE").withConfigName("audit").withCode("a").withValue("a").create());
+    String today = LocalDate.now(ZoneOffset.UTC).toString();
+
+    JsonObject audits = getAudits("config_data.module==AUDITDATE and createdDate>=" + today);
+    testContext.assertEquals(1, audits.getInteger("totalRecords"));
+    testContext.assertEquals(0, getAudits("config_data.module==AUDITDATE and createdDate<2000-01-01")
+      .getInteger("totalRecords"));
+  }
+
+  @Test
+  public void canWriteAuditBehind(TestContext testContext) throws Exception {
+    AuditWriteBehind.run(vertx, true, 1000).toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    try {
+      String now = getChanges("?since=now").getString("nextToken");
+      JsonObject created = assertCreateConfigRecord(new ConfigurationRecordBuilder()
+        .withModuleName("WRITEBEHIND").withConfigName("audit").withCode("a").withValue("a").create());
+      okapiHttpClient.put("http://localhost:" + port + "/configurations/entries/" + created.getString("id"),
+        created.copy().put("value", "b").encode()).get(5, TimeUnit.SECONDS);
+
+      // queued, neither in the audit table nor in the change feed
+      testContext.assertEquals(0, getAudits("config_data.module==WRITEBEHIND").getInteger("totalRecords"));
+      testContext.assertEquals(0, getChanges("?since=" + now).getInteger("totalRecords"));
+
+      int drained = AuditWriteBehind.run(vertx, false, 1)
+          .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+      testContext.assertTrue(drained >= 2, "drained " + drained);
+      testContext.assertEquals(2, getAudits("config_data.module==WRITEBEHIND").getInteger("totalRecords"));
+      JsonObject changes = getChanges("?since=" + now);
+      testContext.assertEquals(2, changes.getInteger("totalRecords"));
+      testContext.assertEquals("I", changes.getJsonArray("changes").getJsonObject(0).getString("operation"));
+      testContext.assertEquals("U", changes.getJsonArray("changes").getJsonObject(1).getString("operation"));
+
+      // disabled, written directly
+      assertCreateConfigRecord(new ConfigurationRecordBuilder()
+        .withModuleName("WRITEBEHIND").withConfigName("audit").withCode("b").withValue("a").create());
+      testContext.assertEquals(3, getAudits("config_data.module==WRITEBEHIND").getInteger("totalRecords"));
+    } finally {
+      AuditWriteBehind.run(vertx, false, 1000).toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void canMaintainAuditPartitions(TestContext testContext) throws Exception {
+    PostgresClient postgresClient = PostgresClient.getInstance(vertx, TENANT_ID);
+    DateTimeFormatter month = DateTimeFormatter.ofPattern("yyyyMM");
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    OffsetDateTime old = now.minusDays(400);
+    String oldPartition = "audit_config_data_p" + old.format(month);
+    UUID oldId = UUID.randomUUID();
+    UUID newId = UUID.randomUUID();
+    await(postgresClient.execute("INSERT INTO " + SCHEMA + ".audit_config_data (id, jsonb, created_date)"
+        + " VALUES ($1, '{}', $2), ($3, '{}', $4)", Tuple.of(oldId, old, newId, now)));
+    testContext.assertEquals("audit_config_data_default", auditPartition(oldId));
+    testContext.assertFalse(tableExists(oldPartition));
+
+    // creates the partitions from the oldest row of the default partition up to two months ahead
+    await(AuditRetention.run(vertx, 0));
+    testContext.assertEquals(oldPartition, auditPartition(oldId));
+    testContext.assertEquals("audit_config_data_p" + now.format(month), auditPartition(newId));
+    testContext.assertTrue(tableExists("audit_config_data_p" + now.plusMonths(2).format(month)));
+    testContext.assertEquals(0L, await(postgresClient.execute(
+        "SELECT count(*) FROM " + SCHEMA + ".audit_config_data_default")).iterator().next().getLong(0));
+
+    // drops the partitions past the retention window
+    await(AuditRetention.run(vertx, 30));
+    testContext.assertFalse(tableExists(oldPartition));
+    testContext.assertNull(auditPartition(oldId));
+    testContext.assertEquals("audit_config_data_p" + now.format(month), auditPartition(newId));
+  }
+
+  /**
+   * @return the name of the partition of the audit record, null if it doesn't exist
+   */
+  private static String auditPartition(UUID id) throws Exception {
+    RowSet<Row> rowSet = await(PostgresClient.getInstance(vertx, TENANT_ID).execute(
+        "SELECT tableoid::regclass::text FROM " + SCHEMA + ".audit_config_data WHERE id = $1", Tuple.of(id)));
+    if (rowSet.size() == 0) {
+      return null;
+    }
+    String table = rowSet.iterator().next().getString(0);
+    return table.substring(table.indexOf('.') + 1);
+  }
+
+  private static boolean tableExists(String table) throws Exception {
+    return await(PostgresClient.getInstance(vertx, TENANT_ID).execute(
+        "SELECT to_regclass($1) IS NOT NULL", Tuple.of(SCHEMA + "." + table))).iterator().next().getBoolean(0);
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void canExportAndImportSnapshot(TestContext testContext) throws Exception {
+    JsonObject a = assertCreateConfigRecord(new ConfigurationRecordBuilder()
+      .withModuleName("SNAPSHOT").withConfigName("snapshot").withCode("a").withValue("a").create());
+    assertCreateConfigRecord(new ConfigurationRecordBuilder()
+      .withModuleName("SNAPSHOT").withConfigName("snapshot").withCode("b").withValue("b").create());
+    String url = "http://localhost:" + port + "/configurations/snapshot";
+
+    Response response = okapiHttpClient.get(url).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    String snapshot = response.getBody();
+    String [] lines = snapshot.split("\n");
+    testContext.assertEquals(2, lines.length);
+    testContext.assertTrue(snapshot.endsWith("\n"));
+    Response gzip = okapiHttpClient.getGzip(url).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals("gzip", gzip.getHeader("Content-Encoding"));
+    testContext.assertEquals(snapshot, gzip.getBody());
+
+    assertCreateConfigRecord(new ConfigurationRecordBuilder()
+      .withModuleName("SNAPSHOT").withConfigName("snapshot").withCode("c").withValue("c").create());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(snapshot.getBytes(StandardCharsets.UTF_8));
+    }
+    response = okapiHttpClient.postBinary(url + "?replace=true", bytes.toByteArray()).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    testContext.assertEquals(2, response.getBodyAsJson().getInteger("totalRecords"));
+    testContext.assertEquals(2, getByCql("module==SNAPSHOT").getInteger("totalRecords"));
+
+    String changed = lines[0].contains(a.getString("id"))
+        ? new JsonObject(lines[0]).put("value", "changed").encode()
+        : new JsonObject(lines[1]).put("value", "changed").encode();
+    response = okapiHttpClient.postBinary(url, (changed + "\n").getBytes(StandardCharsets.UTF_8))
+        .get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    testContext.assertEquals(1, response.getBodyAsJson().getInteger("totalRecords"));
+    testContext.assertEquals(2, getByCql("module==SNAPSHOT").getInteger("totalRecords"));
+    testContext.assertEquals(1, getByCql("module==SNAPSHOT and value==changed").getInteger("totalRecords"));
+
+    response = okapiHttpClient.postBinary(url, (changed + "\nfoo\n").getBytes(StandardCharsets.UTF_8))
+        .get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(400, response.getStatusCode(), response.getBody());
+    testContext.assertEquals("Line 2: not a JSON object", response.getBody());
+
+    String invalid = new JsonObject(changed).put("id", UUID.randomUUID().toString()).put("foo", "bar").encode();
+    response = okapiHttpClient.postBinary(url, (changed + "\n" + invalid + "\n").getBytes(StandardCharsets.UTF_8))
+        .get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(422, response.getStatusCode(), response.getBody());
+    testContext.assertTrue(response.getBodyAsJson().getJsonArray("errors").getJsonObject(0).getString("message")
+        .startsWith("Line 2: "), response.getBody());
+  }
+
+  @Test
+  public void canGetMetrics(TestContext testContext) throws Exception {
+    assertCreateConfigRecord(new ConfigurationRecordBuilder()
+      .withModuleName("METRICS").withConfigName("metrics").withCode("a").withValue("a").create());
+    Response duplicate = okapiHttpClient.post("http://localhost:" + port + "/configurations/entries",
+      new ConfigurationRecordBuilder().withModuleName("METRICS").withConfigName("metrics").withCode("a")
+        .withValue("b").create().encode()).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(422, duplicate.getStatusCode(), duplicate.getBody());
+
+    Response response = okapiHttpClient.get("http://localhost:" + port + "/admin/metrics").get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, response.getStatusCode());
+    String metrics = response.getBody();
+    testContext.assertTrue(metrics.contains("configuration_requests_seconds_count{"
+      + "operation=\"post_entry\",outcome=\"CLIENT_ERROR\",status=\"422\""), metrics);
+    testContext.assertTrue(metrics.contains("configuration_unique_violations_total"), metrics);
+    testContext.assertTrue(metrics.contains("configuration_db_pool_max"), metrics);
+  }
+
+  @Test
+  public void canGetNotModified(TestContext testContext) throws Exception {
+    JsonObject created = assertCreateConfigRecord(ConfigurationRecordExamples.audioAlertsExample().create());
+    String entryUrl = "http://localhost:" + port + "/configurations/entries/" + created.getString("id");
+    String collectionUrl = "http://localhost:" + port + "/configurations/entries?query=module%3D%3DCHECKOUT";
+
+    Response entry = okapiHttpClient.getIfNoneMatch(entryUrl, null).get(5, TimeUnit.SECONDS);
+    // without If-None-Match and without cache the version of the collection is not looked up
+    testContext.assertNull(okapiHttpClient.getIfNoneMatch(collectionUrl, null).get(5, TimeUnit.SECONDS)
+      .getHeader("ETag"));
+    Response collection = okapiHttpClient.getIfNoneMatch(collectionUrl, "\"0\"").get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(200, entry.getStatusCode());
+    testContext.assertEquals(200, collection.getStatusCode());
+    testContext.assertNotNull(entry.getHeader("ETag"));
+    testContext.assertNotNull(collection.getHeader("ETag"));
+
+    testContext.assertEquals(304, okapiHttpClient.getIfNoneMatch(entryUrl, entry.getHeader("ETag"))
+      .get(5, TimeUnit.SECONDS).getStatusCode());
+    testContext.assertEquals(304, okapiHttpClient.getIfNoneMatch(collectionUrl, "W/" + collection.getHeader("ETag"))
+      .get(5, TimeUnit.SECONDS).getStatusCode());
+
+    Response put = okapiHttpClient.put(entryUrl, created.copy().put("value", "false").encode()).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(204, put.getStatusCode(), put.getBody());
+
+    testContext.assertEquals(200, okapiHttpClient.getIfNoneMatch(entryUrl, entry.getHeader("ETag"))
+      .get(5, TimeUnit.SECONDS).getStatusCode());
+    testContext.assertEquals(200, okapiHttpClient.getIfNoneMatch(collectionUrl, collection.getHeader("ETag"))
+      .get(5, TimeUnit.SECONDS).getStatusCode());
+  }
+
+  @Test
+  public void writesEvictCachedResponses(TestContext testContext) throws Exception {
+    System.setProperty(ConfigCache.CACHE_SIZE, "100");
+    System.setProperty(ConfigCache.CACHE_TTL_MS, "600000");
+    ConfigCache.reload();
+    try {
+      JsonObject created = assertCreateConfigRecord(ConfigurationRecordExamples.audioAlertsExample().create());
+      String entryUrl = "http://localhost:" + port + "/configurations/entries/" + created.getString("id");
+      testContext.assertEquals(1, getByCql("module==CHECKOUT").getInteger("totalRecords"));
+      testContext.assertEquals(1, getByCql("module==CHECKOUT").getInteger("totalRecords"));
+      testContext.assertEquals(1L, ConfigCache.getInstance().getHits());
+
+      assertCreateConfigRecord(ConfigurationRecordExamples.timeOutDurationExample().create());
+      testContext.assertEquals(2, getByCql("module==CHECKOUT").getInteger("totalRecords"));
+
+      Response put = okapiHttpClient.put(entryUrl, created.copy().put("value", "false").encode())
+        .get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(204, put.getStatusCode(), put.getBody());
+      testContext.assertEquals("false", getByCql("module==CHECKOUT and code==audioAlertsEnabled")
+        .getJsonArray("configs").getJsonObject(0).getString("value"));
+
+      Response delete = okapiHttpClient.delete(entryUrl).get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(204, delete.getStatusCode(), delete.getBody());
+      testContext.assertEquals(1, getByCql("module==CHECKOUT").getInteger("totalRecords"));
+    } finally {
+      System.clearProperty(ConfigCache.CACHE_SIZE);
+      System.clearProperty(ConfigCache.CACHE_TTL_MS);
+      ConfigCache.reload();
+    }
+  }
+
+  @Test
+  public void tooManyRequests(TestContext testContext) throws Exception {
+    System.setProperty(AdmissionControl.RATE, "1");
+    AdmissionControl.reload();
+    try {
+      String entryUrl = "http://localhost:" + port + "/configurations/entries/" + UUID.randomUUID();
+      String collectionUrl = "http://localhost:" + port + "/configurations/entries";
+      testContext.assertEquals(404, okapiHttpClient.get(entryUrl).get(5, TimeUnit.SECONDS).getStatusCode());
+
+      Response entry = okapiHttpClient.get(entryUrl).get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(429, entry.getStatusCode(), entry.getBody());
+      testContext.assertEquals("1", entry.getHeader("Retry-After"));
+
+      Response collection = okapiHttpClient.get(collectionUrl).get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(429, collection.getStatusCode(), collection.getBody());
+      testContext.assertEquals("1", collection.getHeader("Retry-After"));
+    } finally {
+      System.clearProperty(AdmissionControl.RATE);
+      AdmissionControl.reload();
+    }
+  }
+
+  @Test
+  public void canRouteReadsToReplica(TestContext testContext) throws Exception {
+    System.setProperty(ReadRouting.HOST_READER, "localhost");
+    System.setProperty(ReadRouting.PORT_READER, Integer.toString(NetworkUtils.nextFreePort()));
+    System.setProperty(ReadRouting.READ_YOUR_WRITES_MS, "600000");
+    ReadRouting.reload();
+    try {
+      // nothing listens on the port of the replica, reads that go to it fail
+      String unknownUrl = "http://localhost:" + port + "/configurations/entries/" + UUID.randomUUID();
+      testContext.assertEquals(500, okapiHttpClient.get(unknownUrl).get(5, TimeUnit.SECONDS).getStatusCode());
+
+      // read your writes: after a write the reads of the tenant go to the primary
+      JsonObject created = assertCreateConfigRecord(ConfigurationRecordExamples.audioAlertsExample().create());
+      Response response = okapiHttpClient.get("http://localhost:" + port + "/configurations/entries/"
+        + created.getString("id")).get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(200, response.getStatusCode(), response.getBody());
+    } finally {
+      System.clearProperty(ReadRouting.HOST_READER);
+      System.clearProperty(ReadRouting.PORT_READER);
+      System.clearProperty(ReadRouting.READ_YOUR_WRITES_MS);
+      ReadRouting.reload();
+    }
+  }
+
+  @Test
+  public void canCoalesceIdenticalQueries(TestContext testContext) throws Exception {
+    assertCreateConfigRecord(ConfigurationRecordExamples.audioAlertsExample().create());
+    System.setProperty(SingleFlight.SINGLE_FLIGHT, "true");
+    SingleFlight.reload();
+    JsonObject config = PostgresClient.getInstance(vertx).getConnectionConfig();
+    PgConnection lock = await(PgConnection.connect(vertx,
+        ReadRouting.connectOptions(config, config.getString("host"), 0)));
+    try {
+      double coalesced = coalescedCount();
+      // the first query waits for the lock, the identical queries that arrive meanwhile join it
+      await(lock.query("BEGIN").execute());
+      await(lock.query("LOCK TABLE " + SCHEMA + ".config_data IN ACCESS EXCLUSIVE MODE").execute());
+      OkapiHttpClient client = new OkapiHttpClient(vertx, TENANT_ID, USER_ID, 5);
+      List<CompletableFuture<Response>> responses = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        responses.add(client.get("http://localhost:" + port + "/configurations/entries?query=module%3D%3DCHECKOUT"));
+      }
+      Thread.sleep(1000);
+      await(lock.query("COMMIT").execute());
+      for (CompletableFuture<Response> response : responses) {
+        testContext.assertEquals(1, response.get(10, TimeUnit.SECONDS).getBodyAsJson().getInteger("totalRecords"));
+      }
+      testContext.assertEquals(coalesced + 4, coalescedCount());
+    } finally {
+      lock.close();
+      System.clearProperty(SingleFlight.SINGLE_FLIGHT);
+      SingleFlight.reload();
+    }
+  }
+
+  /**
+   * @return the configuration_coalesced_total metric of the tenant, 0 if not registered yet
+   */
+  private static double coalescedCount() throws Exception {
+    String metrics = okapiHttpClient.get("http://localhost:" + port + "/admin/metrics")
+      .get(5, TimeUnit.SECONDS).getBody();
+    String prefix = "configuration_coalesced_total{tenant=\"" + TENANT_ID + "\"} ";
+    for (String line : metrics.split("\n")) {
+      if (line.startsWith(prefix)) {
+        return Double.parseDouble(line.substring(prefix.length()));
+      }
+    }
+    return 0;
+  }
+
+  @Test
+  public void canUseVirtualThreads(TestContext testContext) throws Exception {
+    System.setProperty(VirtualThreads.VIRTUAL_THREADS, "true");
+    VirtualThreads.reload();
+    try {
+      String entity = ConfigurationRecordExamples.audioAlertsExample().create().encode();
+      Response created = okapiHttpClient.post("http://localhost:" + port + "/configurations/entries", entity)
+        .get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(201, created.getStatusCode(), created.getBody());
+      String entryUrl = "http://localhost:" + port + created.getHeader("Location");
+      testContext.assertEquals(created.getBodyAsJson().getString("id"),
+        entryUrl.substring(entryUrl.lastIndexOf('/') + 1));
+      Response duplicate = okapiHttpClient.post("http://localhost:" + port + "/configurations/entries", entity)
+        .get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(422, duplicate.getStatusCode(), duplicate.getBody());
+
+      Response entry = okapiHttpClient.getIfNoneMatch(entryUrl, null).get(5, TimeUnit.SECONDS);
+      testContext.assertEquals(200, entry.getStatusCode(), entry.getBody());
+      testContext.assertEquals("audioAlertsEnabled", entry.getBodyAsJson().getString("code"));
+      testContext.assertEquals(304, okapiHttpClient.getIfNoneMatch(entryUrl, entry.getHeader("ETag"))
+        .get(5, TimeUnit.SECONDS).getStatusCode());
+      testContext.assertEquals(404, okapiHttpClient.get("http://localhost:" + port + "/configurations/entries/"
+        + UUID.randomUUID()).get(5, TimeUnit.SECONDS).getStatusCode());
+    } finally {
+      System.clearProperty(VirtualThreads.VIRTUAL_THREADS);
+      VirtualThreads.reload();
+    }
+  }
+
+  @Test
+  public void canSubscribe(TestContext testContext) {
+    final Async async = testContext.async();
+    HttpClient httpClient = vertx.createHttpClient();
+
+    httpClient.request(HttpMethod.GET, port, "localhost", "/configurations/subscribe?module=checkout")
+      .compose(request -> request
+        .putHeader("X-Okapi-Tenant", TENANT_ID)
+        .putHeader("Accept", "text/event-stream, text/plain")
+        .send())
+      .onComplete(testContext.asyncAssertSuccess(response -> {
+        testContext.assertEquals(200, response.statusCode());
+        StringBuilder events = new StringBuilder();
+        response.handler(buffer -> {
+          events.append(buffer.toString());
+          if (events.toString().contains("\"code\":\"audioAlertsEnabled\"")) {
+            testContext.assertFalse(events.toString().contains("OTHER_MODULE"));
+            httpClient.close();
+            async.complete();
+          }
+        });
+        createConfigRecord(new ConfigurationRecordBuilder()
+          .withModuleName("OTHER_MODULE").withConfigName("x").withCode("x").withValue("x").create())
+          .thenCompose(x -> createConfigRecord(ConfigurationRecordExamples.audioAlertsExample().create()));
+      }));
+  }
+
+  @Test
+  public void cannotReplaceConfigurationRecordWithStaleVersion(TestContext testContext) throws Exception {
+    JsonObject created = assertCreateConfigRecord(ConfigurationRecordExamples.audioAlertsExample().create());
+    String url = "http://localhost:" + port + "/configurations/entries/" + created.getString("id");
+
+    JsonObject stored = okapiHttpClient.get(url).get(5, TimeUnit.SECONDS).getBodyAsJson();
+    testContext.assertEquals(1, stored.getInteger("_version"));
+
+    Response response = okapiHttpClient.put(url, stored.copy().put("value", "false").encode()).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(204, response.getStatusCode(), response.getBody());
+
+    response = okapiHttpClient.put(url, stored.copy().put("value", "true").encode()).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(409, response.getStatusCode(), response.getBody());
+
+    JsonObject unconditional = stored.copy().put("value", "true");
+    unconditional.remove("_version");
+    response = okapiHttpClient.put(url, unconditional.encode()).get(5, TimeUnit.SECONDS);
+    testContext.assertEquals(204, response.getStatusCode(), response.getBody());
+
+    stored = okapiHttpClient.get(url).get(5, TimeUnit.SECONDS).getBodyAsJson();
+    testContext.assertEquals(3, stored.getInteger("_version"));
+    testContext.assertEquals("true", stored.getString("value"));
+  }
+
   @Test
   public void canUsePersistentCaching(TestContext context) {
     final PostgresClient postgresClient = PostgresClient.getInstance(vertx, TENANT_ID);
@@ -1347,6 +2104,37 @@ public class RestVerticleTest extends TestBase {
     }
   }
 
+  private JsonObject getAudits(String cql) {
+    try {
+      Response response = okapiHttpClient
+          .get("http://localhost:" + port + "/configurations/audit?query="
+              + URLEncoder.encode(cql, StandardCharsets.UTF_8.name()))
+          .get(5, TimeUnit.SECONDS);
+      if (response.getStatusCode() != 200) {
+        throw new AssertionError("Expected 200 HTTP code, but was " + response.getStatusCode()
+            + ". " + response.getBody());
+      }
+      return response.getBodyAsJson();
+    } catch (InterruptedException | ExecutionException | TimeoutException | UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private JsonObject getChanges(String parameters) {
+    try {
+      Response response = okapiHttpClient
+          .get("http://localhost:" + port + "/configurations/changes" + parameters)
+          .get(5, TimeUnit.SECONDS);
+      if (response.getStatusCode() != 200) {
+        throw new AssertionError("Expected 200 HTTP code, but was " + response.getStatusCode()
+            + ". " + response.getBody());
+      }
+      return response.getBodyAsJson();
+    } catch (InterruptedException | ExecutionException | TimeoutException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   private JsonObject getByCql(String cql) {
     try {
       String encodedCql = URLEncoder.encode(cql, StandardCharsets.UTF_8.name());
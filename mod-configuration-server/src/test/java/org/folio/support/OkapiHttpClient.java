@@ -2,11 +2,16 @@ package org.folio.support;
 
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.PoolOptions;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
 
 public class OkapiHttpClient {
   private final String tenantId;
@@ -22,6 +27,17 @@ public class OkapiHttpClient {
     this.client = WebClient.create(vertx);
   }
 
+  /**
+   * @param maxConnections  size of the connection pool, for sending many concurrent requests
+   */
+  public OkapiHttpClient(Vertx vertx, String tenantId, String userId, int maxConnections) {
+    this.tenantId = tenantId;
+    this.userId = userId;
+    WebClientOptions options = new WebClientOptions();
+    options.setConnectTimeout(5000);
+    this.client = WebClient.create(vertx, options, new PoolOptions().setHttp1MaxSize(maxConnections));
+  }
+
   public CompletableFuture<Response> post(String url, String jsonContent) {
     HttpRequest<Buffer> request = client.postAbs(url);
 
@@ -38,6 +54,24 @@ public class OkapiHttpClient {
     return postCompleted;
   }
 
+  /**
+   * POST with Content-Type: application/octet-stream.
+   */
+  public CompletableFuture<Response> postBinary(String url, byte [] content) {
+    HttpRequest<Buffer> request = client.postAbs(url);
+
+    final CompletableFuture<Response> postCompleted = new CompletableFuture<>();
+
+    request.putHeader("X-Okapi-Tenant", tenantId);
+    request.putHeader("X-Okapi-User-Id", userId);
+    request.putHeader("Content-type", "application/octet-stream");
+    request.putHeader("Accept", "application/json, text/plain");
+
+    request.sendBuffer(Buffer.buffer(content))
+        .onFailure(postCompleted::completeExceptionally)
+        .onSuccess(res -> postCompleted.complete(new Response(res.statusCode(), res.bodyAsString())));
+    return postCompleted;
+  }
 
   public CompletableFuture<Response> get(String url, String tenantId) {
     HttpRequest<Buffer> request = client.getAbs(url);
@@ -61,6 +95,56 @@ public class OkapiHttpClient {
     return get(url, this.tenantId);
   }
 
+  public CompletableFuture<Response> getIfNoneMatch(String url, String etag) {
+    HttpRequest<Buffer> request = client.getAbs(url);
+
+    final CompletableFuture<Response> getCompleted = new CompletableFuture<>();
+
+    request.putHeader("X-Okapi-Tenant", tenantId);
+    request.putHeader("X-Okapi-User-Id", userId);
+    request.putHeader("Accept", "application/json, text/plain");
+    if (etag != null) {
+      request.putHeader("If-None-Match", etag);
+    }
+
+    request.send()
+        .onFailure(getCompleted::completeExceptionally)
+        .onSuccess(res -> getCompleted.complete(new Response(res.statusCode(), res.bodyAsString(), res.headers())));
+
+    return getCompleted;
+  }
+
+  /**
+   * GET with Accept-Encoding: gzip, the body of the returned Response is decompressed.
+   */
+  public CompletableFuture<Response> getGzip(String url) {
+    HttpRequest<Buffer> request = client.getAbs(url);
+
+    final CompletableFuture<Response> getCompleted = new CompletableFuture<>();
+
+    request.putHeader("X-Okapi-Tenant", tenantId);
+    request.putHeader("X-Okapi-User-Id", userId);
+    request.putHeader("Accept", "application/json, text/plain");
+    request.putHeader("Accept-Encoding", "gzip");
+
+    request.send()
+        .onFailure(getCompleted::completeExceptionally)
+        .onSuccess(res -> {
+          String body = res.bodyAsString();
+          if ("gzip".equals(res.getHeader("Content-Encoding"))) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(res.bodyAsBuffer().getBytes()))) {
+              body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+              getCompleted.completeExceptionally(e);
+              return;
+            }
+          }
+          getCompleted.complete(new Response(res.statusCode(), body, res.headers()));
+        });
+
+    return getCompleted;
+  }
+
   public CompletableFuture<Response> put(String url, String jsonContent) {
     HttpRequest<Buffer> request = client.putAbs(url);
 
@@ -76,4 +160,19 @@ public class OkapiHttpClient {
         .onSuccess(res -> putCompleted.complete(new Response(res.statusCode(), res.bodyAsString())));
     return putCompleted;
   }
+
+  public CompletableFuture<Response> delete(String url) {
+    HttpRequest<Buffer> request = client.deleteAbs(url);
+
+    final CompletableFuture<Response> deleteCompleted = new CompletableFuture<>();
+
+    request.putHeader("X-Okapi-Tenant", tenantId);
+    request.putHeader("X-Okapi-User-Id", userId);
+    request.putHeader("Accept", "text/plain");
+
+    request.send()
+        .onFailure(deleteCompleted::completeExceptionally)
+        .onSuccess(res -> deleteCompleted.complete(new Response(res.statusCode(), res.bodyAsString())));
+    return deleteCompleted;
+  }
 }
@@ -1,14 +1,21 @@
 package org.folio.support;
 
+import io.vertx.core.MultiMap;
 import io.vertx.core.json.JsonObject;
 
 public class Response {
   private final Integer statusCode;
   private final String body;
+  private final MultiMap headers;
 
   Response(Integer statusCode, String body) {
+    this(statusCode, body, MultiMap.caseInsensitiveMultiMap());
+  }
+
+  Response(Integer statusCode, String body, MultiMap headers) {
     this.statusCode = statusCode;
     this.body = body;
+    this.headers = headers;
   }
 
   public Integer getStatusCode() {
@@ -19,6 +26,10 @@ public class Response {
     return body;
   }
 
+  public String getHeader(String name) {
+    return headers.get(name);
+  }
+
   public JsonObject getBodyAsJson() {
     return new JsonObject(getBody());
   }